@@ -0,0 +1,91 @@
+package me.scana.okgradle.benchmarks;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+
+/**
+ * Generated build files, from a small module to one with thousands of dependencies, a long chain
+ * of {@code ext} properties referencing each other, dozens of {@code apply from} scripts, or thousands of
+ * dependencies on properties that are never defined.
+ * <p>
+ * Every other dependency takes its version from an {@code ext} property, so the number of
+ * properties grows with the number of dependencies.
+ */
+public enum BuildFileCorpus {
+    DEPENDENCIES_10(10, 1, 0, 0),
+    DEPENDENCIES_200(200, 1, 0, 0),
+    DEPENDENCIES_2000(2000, 1, 0, 0),
+    EXT_CHAIN_200(10, 200, 0, 0),
+    APPLY_FROM_50(10, 1, 50, 0),
+    DANGLING_3000(10, 1, 0, 3000);
+
+    public final int dependencies;
+    public final int chainLength;
+    public final int appliedFiles;
+    public final int danglingReferences;
+
+    BuildFileCorpus(int dependencies, int chainLength, int appliedFiles, int danglingReferences) {
+        this.dependencies = dependencies;
+        this.chainLength = chainLength;
+        this.appliedFiles = appliedFiles;
+        this.danglingReferences = danglingReferences;
+    }
+
+    /**
+     * @return the last property of the {@code ext} block, which references every link of the chain before it
+     */
+    public String lastProperty() {
+        return "link" + (chainLength - 1);
+    }
+
+    /**
+     * @return a property which is never defined, referenced by the {@code awaited} dependency of every corpus and by the
+     * first dangling reference
+     */
+    public String awaitedProperty() {
+        return "missingVersion0";
+    }
+
+    /**
+     * Must be called on the EDT.
+     *
+     * @return the main build file
+     */
+    public VirtualFile write(CodeInsightTestFixture fixture) {
+        for (int i = 0; i < appliedFiles; i++) {
+            fixture.addFileToProject("gradle/applied" + i + ".gradle", "ext {\n  appliedVersion" + i + " = '2." + i + "'\n}\n");
+        }
+        return fixture.addFileToProject("build.gradle", buildFile()).getVirtualFile();
+    }
+
+    public String buildFile() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("apply plugin: 'java'\n\n");
+        for (int i = 0; i < appliedFiles; i++) {
+            builder.append("apply from: 'gradle/applied").append(i).append(".gradle'\n");
+        }
+        builder.append("\next {\n");
+        for (int i = 0; i < dependencies; i += 2) {
+            builder.append("  version").append(i).append(" = '1.").append(i).append(".0'\n");
+        }
+        builder.append("  link0 = '3.0.0'\n");
+        for (int i = 1; i < chainLength; i++) {
+            builder.append("  link").append(i).append(" = link").append(i - 1).append('\n');
+        }
+        builder.append("}\n\ndependencies {\n");
+        for (int i = 0; i < dependencies; i++) {
+            String version = i % 2 == 0 ? "$version" + i : "1." + i + ".0";
+            builder.append("  implementation \"com.example.group").append(i).append(":artifact").append(i).append(':').append(version).append("\"\n");
+        }
+        for (int i = 0; i < appliedFiles; i++) {
+            builder.append("  implementation \"com.example.applied:artifact").append(i).append(":$appliedVersion").append(i).append("\"\n");
+        }
+        for (int i = 0; i < danglingReferences; i++) {
+            builder.append("  implementation \"com.example.missing:artifact").append(i).append(":$missingVersion").append(i).append("\"\n");
+        }
+        builder.append("  implementation \"com.example:awaited:$").append(awaitedProperty()).append("\"\n");
+        builder.append("  implementation \"com.example:chained:$").append(lastProperty()).append("\"\n");
+        builder.append("}\n");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package me.scana.okgradle.benchmarks;
+
+import me.scana.okgradle.data.FuzzyMatcher;
+import me.scana.okgradle.data.repository.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures "did you mean" lookups over {@code names} artifacts, made up of words commonly found
+ * in artifact names so that terms share prefixes the way real ones do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzyMatcherBenchmark {
+
+    private static final String[] WORDS = {
+            "android", "annotation", "appcompat", "coroutines", "compose", "constraintlayout", "converter",
+            "core", "fragment", "gson", "gradle", "lifecycle", "livedata", "material", "navigation", "okhttp",
+            "paging", "recyclerview", "retrofit", "room", "runtime", "serialization", "testing", "viewmodel", "work"
+    };
+
+    @Param({"1000", "10000", "50000"})
+    public int names;
+
+    private final FuzzyMatcher matcher = new FuzzyMatcher();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Artifact> artifacts = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)] + i;
+            artifacts.add(new Artifact("com.example.group" + (i % 500), name, "1.0.0"));
+        }
+        matcher.addAll(artifacts);
+        matcher.suggest("warm-up", 20);
+    }
+
+    @Benchmark
+    public FuzzyMatcher.Suggestion misspelledWord() {
+        return matcher.suggest("navigaton", 20);
+    }
+
+    @Benchmark
+    public FuzzyMatcher.Suggestion misspelledQuery() {
+        return matcher.suggest("lifecyle runtme", 20);
+    }
+
+    @Benchmark
+    public FuzzyMatcher.Suggestion unfinishedWord() {
+        return matcher.suggest("recyclerv", 20);
+    }
+}
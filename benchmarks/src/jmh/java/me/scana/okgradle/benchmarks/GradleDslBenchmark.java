@@ -0,0 +1,153 @@
+package me.scana.okgradle.benchmarks;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import me.scana.okgradle.internal.dsl.api.GradleBuildModel;
+import me.scana.okgradle.internal.dsl.api.GradleModelProvider;
+import me.scana.okgradle.internal.dsl.api.dependencies.DependencyModel;
+import me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslSimpleExpression;
+import me.scana.okgradle.internal.dsl.parser.ext.ExtDslElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Gradle DSL model against a light IntelliJ fixture: parsing a build file with the Groovy parser,
+ * resolving a chain of references, listing dependencies, adding a property that unresolved references are waiting for and
+ * writing a new dependency back through the Groovy writer.
+ * <p>
+ * Reads run in a read action on the benchmark thread. Writes have to run on the EDT, so their score includes
+ * handing the work over to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradleDslBenchmark {
+
+    private static final String MODULE_NAME = "app";
+
+    @Param
+    public BuildFileCorpus corpus;
+
+    private CodeInsightTestFixture fixture;
+    private VirtualFile buildFile;
+    private GradleBuildModel model;
+    private ExtDslElement ext;
+    private GradleDslSimpleExpression lastProperty;
+
+    @Setup
+    public void setUp() throws Throwable {
+        IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        TestFixtureBuilder<IdeaProjectTestFixture> builder = factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR);
+        fixture = factory.createCodeInsightFixture(builder.getFixture());
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            buildFile = corpus.write(fixture);
+        });
+        model = parse();
+        ext = ((GradleBuildModelImpl)model).getDslFile().getPropertyElement(ExtDslElement.EXT_BLOCK_NAME, ExtDslElement.class);
+        lastProperty = ext.getPropertyElement(corpus.lastProperty(), GradleDslSimpleExpression.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+    }
+
+    @Benchmark
+    public GradleBuildModel parse() {
+        return ReadAction.compute(() -> GradleModelProvider.get().parseBuildFile(buildFile, getProject(), MODULE_NAME));
+    }
+
+    /**
+     * Resolves the value of the last {@code ext} property, which goes through every link of the chain before it.
+     */
+    @Benchmark
+    public Object resolveReference(ClearedCaches cleared) {
+        return ReadAction.compute(() -> lastProperty.getValue());
+    }
+
+    @Benchmark
+    public List<DependencyModel> allDependencies() {
+        return ReadAction.compute(() -> model.dependencies().all());
+    }
+
+    /**
+     * Adds the property that the {@code awaited} dependency and the first dangling reference are waiting for, which resolves them.
+     */
+    @Benchmark
+    public void addExtProperty(FreshModel fresh) throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            fresh.model.ext().findProperty(corpus.awaitedProperty()).setValue("1.0.0");
+        }));
+    }
+
+    @Benchmark
+    public void applyNewDependency(FreshModel fresh) throws Throwable {
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            fresh.model.dependencies().addArtifact("implementation", "com.example:added:1.0.0");
+            fresh.model.applyChanges();
+        }));
+    }
+
+    private Project getProject() {
+        return fixture.getProject();
+    }
+
+    /**
+     * Forgets the values resolved by the previous invocation, so that none of the links is answered from its cache.
+     */
+    @State(Scope.Thread)
+    public static class ClearedCaches {
+
+        @Setup(Level.Invocation)
+        public void setUp(GradleDslBenchmark benchmark) {
+            ReadAction.run(() -> benchmark.ext.resetState());
+        }
+    }
+
+    /**
+     * A model parsed just before each write, with the build file put back the way the corpus wrote it afterwards.
+     */
+    @State(Scope.Thread)
+    public static class FreshModel {
+
+        private GradleBuildModel model;
+
+        @Setup(Level.Invocation)
+        public void setUp(GradleDslBenchmark benchmark) {
+            model = benchmark.parse();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown(GradleDslBenchmark benchmark) throws Throwable {
+            EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(benchmark.getProject(), () -> {
+                Document document = FileDocumentManager.getInstance().getDocument(benchmark.buildFile);
+                document.setText(benchmark.corpus.buildFile());
+                PsiDocumentManager.getInstance(benchmark.getProject()).commitDocument(document);
+            }));
+        }
+    }
+}
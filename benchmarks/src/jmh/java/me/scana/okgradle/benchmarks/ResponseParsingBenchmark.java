@@ -0,0 +1,153 @@
+package me.scana.okgradle.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import kotlin.Pair;
+import me.scana.okgradle.data.repository.Artifact;
+import me.scana.okgradle.data.repository.BintrayResponseReader;
+import me.scana.okgradle.data.repository.BintrayResult;
+import me.scana.okgradle.data.repository.Doc;
+import me.scana.okgradle.data.repository.JitPackResponseReader;
+import me.scana.okgradle.data.repository.MavenResponseReader;
+import me.scana.okgradle.data.repository.MavenResult;
+import me.scana.okgradle.data.repository.SearchResult;
+import me.scana.okgradle.data.repository.Spellcheck;
+import me.scana.okgradle.data.repository.SpellcheckDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming response readers with the previous approach of deserializing the whole
+ * response into Gson models and mapping them to artifacts afterwards.
+ * <p>
+ * Payloads are built by repeating the entries of responses recorded from each repository
+ * until they contain {@code artifacts} entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseParsingBenchmark {
+
+    private static final Type JITPACK_TYPE = new TypeToken<Map<String, List<String>>>() {}.getType();
+    private static final Type BINTRAY_TYPE = new TypeToken<List<BintrayResult>>() {}.getType();
+
+    @Param({"100", "1000", "10000"})
+    public int artifacts;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Spellcheck.class, new SpellcheckDeserializer())
+            .create();
+
+    private final MavenResponseReader mavenReader = new MavenResponseReader(gson);
+    private final JitPackResponseReader jitPackReader = new JitPackResponseReader();
+    private final BintrayResponseReader bintrayReader = new BintrayResponseReader();
+
+    private String mavenPayload;
+    private String jitPackPayload;
+    private String bintrayPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonObject maven = load("maven.json").getAsJsonObject();
+        JsonObject response = maven.getAsJsonObject("response");
+        response.add("docs", repeat(response.getAsJsonArray("docs"), artifacts));
+        mavenPayload = maven.toString();
+
+        JsonObject jitPack = load("jitpack.json").getAsJsonObject();
+        JsonObject repeatedJitPack = new JsonObject();
+        List<Map.Entry<String, JsonElement>> entries = new ArrayList<>(jitPack.entrySet());
+        for (int i = 0; i < artifacts; i++) {
+            Map.Entry<String, JsonElement> entry = entries.get(i % entries.size());
+            repeatedJitPack.add(entry.getKey() + i, entry.getValue());
+        }
+        jitPackPayload = repeatedJitPack.toString();
+
+        bintrayPayload = repeat(load("bintray.json").getAsJsonArray(), artifacts).toString();
+    }
+
+    @Benchmark
+    public SearchResult.Success mavenStreaming() throws Exception {
+        return mavenReader.read(gson.newJsonReader(new StringReader(mavenPayload)));
+    }
+
+    @Benchmark
+    public Pair<List<Artifact>, String> mavenObjectModel() {
+        MavenResult result = gson.fromJson(new StringReader(mavenPayload), MavenResult.class);
+        List<Artifact> artifacts = new ArrayList<>();
+        for (Doc doc : result.getResponse().getDocs()) {
+            artifacts.add(new Artifact(doc.getG(), doc.getA(), doc.getLatestVersion()));
+        }
+        String suggestion = result.getSpellcheck().getSuggestions().isEmpty()
+                ? null
+                : result.getSpellcheck().getSuggestions().get(0).getSuggestion().get(0);
+        return new Pair<>(artifacts, suggestion);
+    }
+
+    @Benchmark
+    public List<Artifact> jitPackStreaming() throws Exception {
+        return jitPackReader.read(gson.newJsonReader(new StringReader(jitPackPayload)));
+    }
+
+    @Benchmark
+    public List<Artifact> jitPackObjectModel() {
+        Map<String, List<String>> result = gson.fromJson(new StringReader(jitPackPayload), JITPACK_TYPE);
+        List<Artifact> artifacts = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : result.entrySet()) {
+            String[] coordinates = entry.getKey().split(":", 2);
+            artifacts.add(new Artifact(coordinates[0], coordinates[1], entry.getValue().get(0)));
+        }
+        return artifacts;
+    }
+
+    @Benchmark
+    public List<Artifact> bintrayStreaming() throws Exception {
+        return bintrayReader.read(gson.newJsonReader(new StringReader(bintrayPayload)));
+    }
+
+    @Benchmark
+    public List<Artifact> bintrayObjectModel() {
+        List<BintrayResult> result = gson.fromJson(new StringReader(bintrayPayload), BINTRAY_TYPE);
+        List<Artifact> artifacts = new ArrayList<>();
+        for (BintrayResult packageResult : result) {
+            String[] coordinates = packageResult.getName().split(":", 2);
+            artifacts.add(new Artifact(coordinates[0], coordinates[1], packageResult.getVersions().get(0)));
+        }
+        return artifacts;
+    }
+
+    private static JsonElement load(String name) throws Exception {
+        try (Reader reader = new InputStreamReader(
+                ResponseParsingBenchmark.class.getResourceAsStream("/payloads/" + name), StandardCharsets.UTF_8)) {
+            return new JsonParser().parse(reader);
+        }
+    }
+
+    private static JsonArray repeat(JsonArray recorded, int count) {
+        JsonArray repeated = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            repeated.add(recorded.get(i % recorded.size()).deepCopy());
+        }
+        return repeated;
+    }
+}
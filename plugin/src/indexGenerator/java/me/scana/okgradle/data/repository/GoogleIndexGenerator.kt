@@ -0,0 +1,56 @@
+package me.scana.okgradle.data.repository
+
+import okhttp3.OkHttpClient
+import java.io.File
+
+/**
+ * Build-time entry point that produces the [ArtifactIndex] bundled with the plugin. It lives in its own source set,
+ * so it is not shipped with the plugin.
+ *
+ * Usage: `GoogleIndexGenerator <output file> <seed file> [--download]`. By default the index is built from the seed file,
+ * which lists `groupId:artifactId` coordinates one per line, so the build works offline. With `--download` the artifacts are
+ * downloaded from Google's Maven repository instead, falling back to the seed file when it can't be reached.
+ */
+object GoogleIndexGenerator {
+
+    private const val DOWNLOAD = "--download"
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        require(args.size >= 2) { "Usage: GoogleIndexGenerator <output file> <seed file> [$DOWNLOAD]" }
+        val output = File(args[0])
+        val seed = File(args[1])
+
+        val artifacts = if (DOWNLOAD in args) download() ?: readSeed(seed) else readSeed(seed)
+
+        output.parentFile?.mkdirs()
+        output.outputStream().buffered().use { ArtifactIndex.write(artifacts, System.currentTimeMillis(), it) }
+        println("Wrote ${artifacts.size} artifacts to $output")
+    }
+
+    private fun download(): List<Artifact>? {
+        val okHttpClient = OkHttpClient.Builder().build()
+        try {
+            return when (val result = GoogleMavenIndexFetcher(NetworkClient(okHttpClient)).fetch()) {
+                is NetworkResult.Success -> result.data
+                is NetworkResult.Failure -> {
+                    System.err.println("Could not download Google Maven index (${result.throwable.message}), using the seed file")
+                    null
+                }
+            }
+        } finally {
+            okHttpClient.dispatcher.executorService.shutdown()
+            okHttpClient.connectionPool.evictAll()
+        }
+    }
+
+    private fun readSeed(seed: File): List<Artifact> {
+        return seed.readLines()
+                .map { it.trim() }
+                .filter { it.isNotEmpty() && !it.startsWith("#") }
+                .map {
+                    val (groupId, name) = it.split(":".toRegex(), 2)
+                    Artifact(groupId, name, GoogleMavenIndexFetcher.UNKNOWN_VERSION)
+                }
+    }
+}
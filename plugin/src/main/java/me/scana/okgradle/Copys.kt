@@ -22,7 +22,13 @@ class Copys {
         )
         const val SUGGESTION_FIRST_PART = "(did you mean: "
         const val SUGGESTION_LAST_PART = "?)"
+        const val UNAVAILABLE_REPOSITORIES = "Not responding, skipped for now: %s"
         const val INPUT_HINT = "try typing \'retrofit\'"
         const val ADD_DEPENDENCY = "Add dependency"
+
+        const val DIAGNOSTICS_TITLE = "OK, Gradle! Diagnostics"
+        const val DIAGNOSTICS_REFRESH_ACTION = "Refresh"
+        const val DIAGNOSTICS_SAVE_ACTION = "Save as OpenMetrics"
+        const val DIAGNOSTICS_SAVE_DESCRIPTION = "Search metrics in the OpenMetrics text format"
     }
 }
@@ -0,0 +1,13 @@
+package me.scana.okgradle
+
+import com.intellij.openapi.actionSystem.AnAction
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.actionSystem.CommonDataKeys
+
+class OkGradleDiagnosticsAction : AnAction() {
+
+    override fun actionPerformed(event: AnActionEvent) {
+        val project = event.getData(CommonDataKeys.PROJECT)
+        OkGradleDiagnosticsDialog(project, OkGradleService.getInstance().metrics).show()
+    }
+}
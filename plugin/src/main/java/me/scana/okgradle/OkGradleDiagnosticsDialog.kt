@@ -0,0 +1,78 @@
+package me.scana.okgradle
+
+import com.intellij.openapi.fileChooser.FileChooserFactory
+import com.intellij.openapi.fileChooser.FileSaverDescriptor
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.ui.DialogWrapper
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.ui.components.JBScrollPane
+import com.intellij.ui.components.JBTextArea
+import com.intellij.ui.components.panels.HorizontalLayout
+import com.intellij.ui.components.panels.VerticalLayout
+import me.scana.okgradle.data.SearchMetrics
+import java.awt.Dimension
+import java.awt.Font
+import javax.swing.*
+
+/**
+ * Shows where search time went since the IDE started and saves the numbers in the OpenMetrics text format.
+ */
+class OkGradleDiagnosticsDialog(
+        private val project: Project?,
+        private val metrics: SearchMetrics
+) : DialogWrapper(project, false) {
+
+    private val summary = JBTextArea().apply {
+        isEditable = false
+        font = Font(Font.MONOSPACED, font.style, font.size)
+    }
+
+    private val refreshButton = JButton().apply {
+        text = Copys.DIAGNOSTICS_REFRESH_ACTION
+        addActionListener { refresh() }
+    }
+
+    private val saveButton = JButton().apply {
+        text = Copys.DIAGNOSTICS_SAVE_ACTION
+        addActionListener { save() }
+    }
+
+    init {
+        init()
+        title = Copys.DIAGNOSTICS_TITLE
+        refresh()
+    }
+
+    override fun createCenterPanel(): JComponent {
+        val panel = JPanel(VerticalLayout(8))
+        val scrollPane = JBScrollPane(summary)
+        scrollPane.preferredSize = Dimension(600, 400)
+        panel.add(scrollPane)
+        panel.add(
+                JPanel(HorizontalLayout(8)).apply {
+                    add(refreshButton)
+                    add(saveButton)
+                }
+        )
+        return panel
+    }
+
+    override fun createActions(): Array<Action> = arrayOf(okAction)
+
+    private fun refresh() {
+        summary.text = metrics.summary()
+        summary.caretPosition = 0
+    }
+
+    private fun save() {
+        val descriptor = FileSaverDescriptor(Copys.DIAGNOSTICS_SAVE_ACTION, Copys.DIAGNOSTICS_SAVE_DESCRIPTION, "txt")
+        val target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(null as VirtualFile?, DEFAULT_FILE_NAME) ?: return
+        target.file.bufferedWriter().use { metrics.writeOpenMetrics(it) }
+    }
+
+    companion object {
+        private const val DEFAULT_FILE_NAME = "ok-gradle-metrics.txt"
+    }
+}
@@ -43,6 +43,12 @@ class OkGradleDialog(private val presenter: OkGradle.Presenter) : DialogWrapper(
         }
     }
 
+    private val unavailableRepositoriesLabel = JLabel().apply {
+        foreground = foreground.transparent(123)
+        font = Font(font.name, font.style, font.size - 2)
+        isVisible = false
+    }
+
     private val resultsListModel = ArtifactListModel()
     private val resultList = JBList(resultsListModel).apply {
         selectionMode = ListSelectionModel.SINGLE_SELECTION
@@ -106,6 +112,7 @@ class OkGradleDialog(private val presenter: OkGradle.Presenter) : DialogWrapper(
         val scrollPane = JBScrollPane(resultList)
         scrollPane.preferredSize = Dimension(500, 200)
         panel.add(scrollPane)
+        panel.add(unavailableRepositoriesLabel)
         panel.add(
                 JPanel(HorizontalLayout(8)).apply {
                     add(clipboardCopyButton)
@@ -164,7 +171,17 @@ class OkGradleDialog(private val presenter: OkGradle.Presenter) : DialogWrapper(
     }
 
     override fun showArtifacts(artifacts: List<Artifact>) {
-        resultsListModel.addAll(artifacts)
+        val selected = resultList.selectedValue
+        resultsListModel.replaceAll(artifacts)
+        when {
+            selected == null -> Unit
+            selected in artifacts -> resultList.setSelectedValue(selected, false)
+            else -> resultList.clearSelection()
+        }
+    }
+
+    override fun updateArtifact(artifact: Artifact) {
+        resultsListModel.update(artifact)
     }
 
     override fun showSuggestion(suggestion: String) {
@@ -176,6 +193,11 @@ class OkGradleDialog(private val presenter: OkGradle.Presenter) : DialogWrapper(
         hintPanel.isVisible = false
     }
 
+    override fun showUnavailableRepositories(titles: List<String>) {
+        unavailableRepositoriesLabel.text = Copys.UNAVAILABLE_REPOSITORIES.format(titles.joinToString())
+        unavailableRepositoriesLabel.isVisible = titles.isNotEmpty()
+    }
+
     override fun resetListState() {
         resultList.clearSelection()
         resultsListModel.clear()
@@ -2,12 +2,18 @@ package me.scana.okgradle
 
 import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
+import io.reactivex.Observable
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.disposables.Disposable
+import me.scana.okgradle.data.AdaptiveDebounce
 import me.scana.okgradle.data.AddDependencyUseCase
+import me.scana.okgradle.data.ArtifactRanker
+import me.scana.okgradle.data.ResultBatch
 import me.scana.okgradle.data.SearchArtifactsUseCase
+import me.scana.okgradle.data.SearchResultCoalescer
+import me.scana.okgradle.data.SearchSchedulers
 import me.scana.okgradle.data.repository.Artifact
-import me.scana.okgradle.data.repository.SearchResult
+import me.scana.okgradle.data.repository.RepositoryHealth
 import me.scana.okgradle.util.IntellijTools
 import me.scana.okgradle.util.Selection
 import java.util.concurrent.TimeUnit
@@ -16,10 +22,11 @@ class OkGradleDialogPresenter(
         project: Project?,
         private val interactor: SearchArtifactsUseCase,
         private val addDependencyUseCase: AddDependencyUseCase,
-        private val intellijTools: IntellijTools
+        private val intellijTools: IntellijTools,
+        private val schedulers: SearchSchedulers = SearchSchedulers.DEFAULT
 ) : OkGradle.Presenter {
 
-    private val SEARCH_START_DELAY_IN_MILLIS = 500L
+    private val debounce = AdaptiveDebounce(interactor)
 
     private var selectedArtifact: Artifact? = null
     private var view: OkGradle.View? = null
@@ -38,13 +45,23 @@ class OkGradleDialogPresenter(
 
     private fun observeInput(view: OkGradle.View) {
         view.userTextInputObservable()
-                .debounce(SEARCH_START_DELAY_IN_MILLIS, TimeUnit.MILLISECONDS)
+                .debounce { Observable.timer(debounce.delayFor(it), TimeUnit.MILLISECONDS, schedulers.cpu) }
+                .observeOn(schedulers.ui)
                 .doOnNext { this.view?.resetListState() }
-                .switchMap { interactor.search(it) }
-                .subscribe(this::onSearchResult, this::onCriticalError)
+                .switchMap { rankedSearch(it) }
+                .subscribe(this::onResultBatch, this::onCriticalError)
                 .attachToLifecycle()
     }
 
+    private fun rankedSearch(query: String): Observable<ResultBatch> {
+        val ranker = ArtifactRanker(query)
+        return interactor.search(query)
+                .observeOn(schedulers.cpu)
+                .map { ranker.rank(it) }
+                .compose(SearchResultCoalescer(schedulers.cpu))
+                .observeOn(schedulers.ui)
+    }
+
     private fun observeArtifactSelection(view: OkGradle.View) {
         view.userArtifactSelectionObservable()
                 .startWith(Selection.None())
@@ -52,20 +69,17 @@ class OkGradleDialogPresenter(
                 .attachToLifecycle()
     }
 
-    private fun onSearchResult(result: SearchResult) = when (result) {
-        is SearchResult.Success -> displayResult(result)
-        is SearchResult.Error -> displayError(result)
-    }
-
-    private fun displayResult(result: SearchResult.Success) {
-        view?.showArtifacts(result.artifacts)
-        result.suggestion?.let {
-            view?.showSuggestion(it)
-        }
+    private fun onResultBatch(batch: ResultBatch) {
+        batch.artifacts?.let { view?.showArtifacts(it) }
+        batch.versionUpdates.forEach { view?.updateArtifact(it) }
+        batch.suggestion?.let { view?.showSuggestion(it) }
+        batch.errors.forEach { view?.displayError(it) }
+        showRepositoryHealth()
     }
 
-    private fun displayError(error: SearchResult.Error) {
-        view?.displayError(error.throwable)
+    private fun showRepositoryHealth() {
+        val unavailable = interactor.health().filterValues { it == RepositoryHealth.UNAVAILABLE }.keys
+        view?.showUnavailableRepositories(unavailable.toList())
     }
 
     private fun onCriticalError(error: Throwable) {
@@ -9,7 +9,9 @@ interface OkGradle {
 
     interface View {
         fun showArtifacts(artifacts: List<Artifact>)
+        fun updateArtifact(artifact: Artifact)
         fun showSuggestion(suggestion: String)
+        fun showUnavailableRepositories(titles: List<String>)
         fun userTextInputObservable(): Observable<String>
         fun userArtifactSelectionObservable(): Observable<Selection<Artifact>>
         fun displayModules(modules: List<Module>)
@@ -0,0 +1,209 @@
+package me.scana.okgradle
+
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.startup.StartupActivity
+import me.scana.okgradle.data.FuzzyMatcher
+import me.scana.okgradle.data.SearchArtifactsUseCase
+import me.scana.okgradle.data.SearchMetrics
+import me.scana.okgradle.data.SearchSchedulers
+import me.scana.okgradle.data.repository.*
+import okhttp3.*
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Application-wide network stack. Keeps one [OkHttpClient] with its connection pool, response cache and
+ * repositories alive between dialogs, so opening OK, Gradle! again doesn't pay for DNS lookups and TLS handshakes.
+ */
+class OkGradleService : Disposable {
+
+    private val dataDirectory = File(PathManager.getSystemPath(), "ok-gradle")
+
+    private val okHttpClient = OkHttpClient.Builder()
+            .protocols(listOf(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_IN_MINUTES, TimeUnit.MINUTES))
+            .dispatcher(Dispatcher().apply {
+                maxRequests = MAX_REQUESTS
+                maxRequestsPerHost = MAX_REQUESTS_PER_HOST
+            })
+            .cache(Cache(File(dataDirectory, "http-cache"), HTTP_CACHE_SIZE_IN_BYTES))
+            .addNetworkInterceptor(ResponseCacheInterceptor())
+            .build()
+
+    private val gson: Gson = GsonBuilder()
+            .registerTypeAdapter(Spellcheck::class.java, SpellcheckDeserializer())
+            .create()
+
+    private val networkClient = NetworkClient(okHttpClient)
+
+    val schedulers = SearchSchedulers.DEFAULT
+
+    val metrics = SearchMetrics()
+
+    private val repositoryClients = POLICIES.mapValues {
+        NetworkClient(it.value.applyTo(okHttpClient), it.value, schedulers.io, schedulers.cpu, metrics.repository(it.key))
+    }
+
+    private val googleIndexStore = GoogleIndexStore(dataDirectory, GoogleMavenIndexFetcher(networkClient), schedulers.io)
+
+    private val googleRepository = GoogleRepository(repositoryClients.getValue("Google"), googleIndexStore, schedulers.io)
+
+    // Only remote searches are cached, the local indexes answer quickly and swap in new data on their own.
+    private val cachingRepositories = mapOf(
+            "Maven" to CachingArtifactRepository(
+                    MavenRepository(repositoryClients.getValue("Maven"), gson),
+                    cacheTimeToLiveInMillis(MavenRepository.MAVEN_URL)
+            ),
+            "JitPack" to CachingArtifactRepository(
+                    JitPackRepository(repositoryClients.getValue("JitPack"), gson),
+                    cacheTimeToLiveInMillis(JitPackRepository.JITPACK_URL)
+            ),
+            "Bintray" to CachingArtifactRepository(
+                    BintrayRepository(repositoryClients.getValue("Bintray"), gson),
+                    cacheTimeToLiveInMillis(BintrayRepository.BINTRAY_URL)
+            )
+    )
+
+    private val resilientRepositories = (mapOf("Google" to googleRepository) + cachingRepositories).mapValues {
+        ResilientArtifactRepository(it.value, POLICIES.getValue(it.key), schedulers.cpu)
+    }
+
+    private val offlineRepository = OfflineArtifactRepository(
+            LocalArtifactScanner(
+                    LocalArtifactScanner.gradleCache(gradleUserHome()),
+                    LocalArtifactScanner.mavenRepository(File(System.getProperty("user.home"))),
+                    File(dataDirectory, "local-caches.bin")
+            ),
+            File(dataDirectory, "offline-index.bin"),
+            schedulers.io
+    )
+
+    private val fuzzyMatcher = FuzzyMatcher()
+
+    private val fuzzyRepository = FuzzyArtifactRepository(
+            fuzzyMatcher,
+            listOf(googleIndexStore::index, offlineRepository::index),
+            schedulers.io
+    )
+
+    private val repositories = resilientRepositories + mapOf("Offline" to offlineRepository, "Fuzzy" to fuzzyRepository)
+
+    val searchArtifactsUseCase = SearchArtifactsUseCase(
+            repositories,
+            versionResolvers = mapOf("Google" to googleRepository),
+            schedulers = schedulers,
+            minQueryLength = MIN_QUERY_LENGTH,
+            fuzzyMatcher = fuzzyMatcher,
+            metrics = metrics
+    )
+
+    init {
+        cachingRepositories.forEach { (title, repository) ->
+            val labels = mapOf("repository" to title)
+            metrics.gauge("ok_gradle_cache_hit_ratio", "Share of searches answered from the in-memory cache.", labels) {
+                repository.stats().hitRate
+            }
+        }
+        resilientRepositories.forEach { (title, repository) ->
+            val labels = mapOf("repository" to title)
+            metrics.gauge("ok_gradle_repository_skipped", "Searches skipped while a repository was not responding.", labels) {
+                repository.skippedRequests().toDouble()
+            }
+        }
+        (repositoryClients + (GOOGLE_INDEX to networkClient)).forEach { (title, client) ->
+            val labels = mapOf("repository" to title)
+            metrics.gauge("ok_gradle_requests_completed", "Requests which got a response.", labels) {
+                client.stats().completed.toDouble()
+            }
+            metrics.gauge("ok_gradle_requests_cancelled", "Requests cancelled before they got a response.", labels) {
+                client.stats().cancelled.toDouble()
+            }
+            metrics.gauge("ok_gradle_requests_coalesced", "Requests answered by an identical request already in flight.", labels) {
+                client.stats().coalesced.toDouble()
+            }
+            metrics.gauge("ok_gradle_requests_hedged", "Requests sent again because the first attempt was slow.", labels) {
+                client.stats().hedged.toDouble()
+            }
+        }
+    }
+
+    /**
+     * Opens connections to every repository ahead of the first search, unless the pool still holds some from earlier ones.
+     */
+    fun warmUpConnections() {
+        if (okHttpClient.connectionPool.connectionCount() > 0) {
+            return
+        }
+        WARM_UP_URLS.forEach { url ->
+            val request = Request.Builder()
+                    .url(url)
+                    .head()
+                    .build()
+            okHttpClient.newCall(request).enqueue(object : Callback {
+                override fun onResponse(call: Call, response: Response) = response.close()
+                override fun onFailure(call: Call, e: IOException) = Unit
+            })
+        }
+    }
+
+    /**
+     * Keeps results as long as the HTTP cache keeps the responses they came from.
+     */
+    private fun cacheTimeToLiveInMillis(url: HttpUrl): Long {
+        val timeToLiveInSeconds = ResponseCacheInterceptor.DEFAULT_TIME_TO_LIVE[url.host]
+                ?: return CachingArtifactRepository.DEFAULT_TIME_TO_LIVE_IN_MILLIS
+        return TimeUnit.SECONDS.toMillis(timeToLiveInSeconds)
+    }
+
+    private fun gradleUserHome(): File {
+        return System.getenv("GRADLE_USER_HOME")?.let { File(it) } ?: File(System.getProperty("user.home"), ".gradle")
+    }
+
+    override fun dispose() {
+        okHttpClient.dispatcher.cancelAll()
+        okHttpClient.dispatcher.executorService.shutdown()
+        okHttpClient.connectionPool.evictAll()
+        okHttpClient.cache?.close()
+    }
+
+    class WarmUpActivity : StartupActivity {
+        override fun runActivity(project: Project) {
+            getInstance().warmUpConnections()
+        }
+    }
+
+    companion object {
+        private const val HTTP_CACHE_SIZE_IN_BYTES = 20L * 1024 * 1024
+        private const val MAX_IDLE_CONNECTIONS = 8
+        private const val KEEP_ALIVE_IN_MINUTES = 5L
+        private const val MAX_REQUESTS = 32
+        private const val MAX_REQUESTS_PER_HOST = 8
+
+        internal val POLICIES = mapOf(
+                "Google" to RepositoryPolicy(),
+                "Maven" to RepositoryPolicy(),
+                "JitPack" to RepositoryPolicy(connectTimeoutInMillis = 3_000, readTimeoutInMillis = 5_000, callTimeoutInMillis = 8_000),
+                "Bintray" to RepositoryPolicy(connectTimeoutInMillis = 3_000, readTimeoutInMillis = 5_000, callTimeoutInMillis = 8_000)
+        )
+
+        // Downloads of the Google Maven index, which don't belong to any search.
+        private const val GOOGLE_INDEX = "Google index"
+
+        internal val MIN_QUERY_LENGTH = mapOf("Google" to 2, "Maven" to 2, "JitPack" to 3, "Bintray" to 3, "Offline" to 2)
+
+        private val WARM_UP_URLS = listOf(
+                GoogleRepository.GOOGLE_MAVEN_URL,
+                MavenRepository.MAVEN_URL,
+                JitPackRepository.JITPACK_URL,
+                BintrayRepository.BINTRAY_URL
+        )
+
+        fun getInstance(): OkGradleService = ServiceManager.getService(OkGradleService::class.java)
+    }
+}
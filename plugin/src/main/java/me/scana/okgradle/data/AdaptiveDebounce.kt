@@ -0,0 +1,32 @@
+package me.scana.okgradle.data
+
+/**
+ * Picks how long to wait after a keystroke before searching.
+ *
+ * Queries which every eligible repository can answer locally are searched almost immediately.
+ * Otherwise the delay follows the typical response time of remote repositories: there's no point
+ * in firing requests more often than they come back.
+ */
+class AdaptiveDebounce(
+        private val searchUseCase: SearchArtifactsUseCase,
+        private val minDelayInMillis: Long = MIN_DELAY_IN_MILLIS,
+        private val maxDelayInMillis: Long = MAX_DELAY_IN_MILLIS
+) {
+
+    fun delayFor(query: String): Long {
+        if (query.isEmpty() || searchUseCase.isAvailableLocally(query)) {
+            return LOCAL_DELAY_IN_MILLIS
+        }
+        val latency = searchUseCase.latency.percentile(LATENCY_PERCENTILE) ?: return DEFAULT_DELAY_IN_MILLIS
+        return (latency / 2).coerceIn(minDelayInMillis, maxDelayInMillis)
+    }
+
+    companion object {
+        const val LOCAL_DELAY_IN_MILLIS = 50L
+        const val DEFAULT_DELAY_IN_MILLIS = 300L
+        const val MIN_DELAY_IN_MILLIS = 150L
+        const val MAX_DELAY_IN_MILLIS = 800L
+
+        private const val LATENCY_PERCENTILE = 75
+    }
+}
@@ -12,6 +12,7 @@ import me.scana.okgradle.internal.dsl.api.dependencies.CommonConfigurationNames
 import me.scana.okgradle.internal.dsl.api.dependencies.DependenciesModel
 import me.scana.okgradle.util.Constants.DOT_GRADLE
 import me.scana.okgradle.util.Constants.DOT_KTS
+import me.scana.okgradle.util.PluginEvents
 import org.jetbrains.kotlin.psi.KtPsiFactory
 
 
@@ -56,8 +57,11 @@ class GradleAddDependencyStrategy(
         private val artifact: Artifact
 ) : AddDependencyStrategy {
 
-    override fun add(): List<String> {
-        val gradleBuildModel = ProjectBuildModel.get(project).getModuleBuildModel(gradleFile)
+    override fun add() = traced(gradleFile, artifact, "Groovy", this::addToBuildModel)
+
+    private fun addToBuildModel(): List<String> {
+        val projectBuildModel = ProjectBuildModel.get(project)
+        val gradleBuildModel = projectBuildModel.getModuleBuildModel(gradleFile)
         val dependencies = gradleBuildModel.dependencies()
         val dependencySpec = ArtifactDependencySpec.create(artifact.name, artifact.groupId, artifact.version)
         val result = mutableListOf<String>()
@@ -78,7 +82,7 @@ class GradleAddDependencyStrategy(
         } else {
             dependencies.addArtifactCompat(CommonConfigurationNames.IMPLEMENTATION, dependencySpec)
         }
-        gradleBuildModel.applyChanges()
+        projectBuildModel.applyChanges()
         val psiFile = PsiManager.getInstance(project).findFile(gradleFile)
         psiFile?.let {
             CodeStyleManager.getInstance(project).adjustLineIndent(it, 0)
@@ -92,7 +96,9 @@ class GradleKtsAddDependencyStrategy(
         private val gradleFile: VirtualFile,
         private val artifact: Artifact
 ) : AddDependencyStrategy {
-    override fun add(): List<String> {
+    override fun add() = traced(gradleFile, artifact, "Kotlin", this::addToPsi)
+
+    private fun addToPsi(): List<String> {
         val psiFile = PsiManager.getInstance(project).findFile(gradleFile)
         val kotlinDependenciesPsi = psiFile?.children
                 ?.mapNotNull { it.children.getOrNull(0) }
@@ -115,6 +121,16 @@ class GradleKtsAddDependencyStrategy(
     }
 }
 
+private fun traced(gradleFile: VirtualFile, artifact: Artifact, strategy: String, add: () -> List<String>): List<String> {
+    val span = PluginEvents.addDependency({ gradleFile.path }, { "${artifact.groupId}:${artifact.name}:${artifact.version}" }, strategy)
+    var statements = 0
+    try {
+        return add().also { statements = it.size }
+    } finally {
+        span.end(statements)
+    }
+}
+
 private fun ArtifactDependencySpec.hasAnnotationProcessor(): Boolean {
     return "$group:$name" in ARTIFACTS_WITH_ANNOTATION_PROCESSORS
 }
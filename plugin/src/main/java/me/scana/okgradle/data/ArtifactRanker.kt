@@ -0,0 +1,168 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.ArtifactSignals
+import me.scana.okgradle.data.repository.SearchResult
+import java.util.*
+import java.util.concurrent.TimeUnit
+import kotlin.math.log10
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Orders the merged results of a single search by relevance to [query].
+ *
+ * Artifacts are scored once, when they arrive. Every new batch is sorted on its own and merged into
+ * the already ranked list, so partial results don't make us rescore or resort everything.
+ * The same `groupId:name` coming from several repositories is shown once, from the one that scores higher.
+ *
+ * Not thread-safe, results have to be fed from a single stream.
+ */
+class ArtifactRanker(
+        query: String,
+        private val trust: Map<Title, Int> = DEFAULT_TRUST,
+        private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private val needle = query.trim().toLowerCase(Locale.ROOT)
+    private val tokens = needle.split(TOKEN_SEPARATORS).filter { it.isNotEmpty() }
+
+    private val byCoordinates = HashMap<String, Ranked>()
+    private var ranked = ArrayList<Ranked>()
+
+    /**
+     * Takes the next result of the search. [SearchResult.Success] is answered with all artifacts
+     * ranked so far, everything else passes through.
+     */
+    fun rank(result: SearchResult): SearchResult = when (result) {
+        is SearchResult.Success -> {
+            add(result)
+            SearchResult.Success(artifacts(), result.suggestion, result.isExhaustive, result.signals, result.source)
+        }
+        is SearchResult.VersionUpdate -> {
+            update(result.artifact)
+            result
+        }
+        is SearchResult.Error -> result
+    }
+
+    fun artifacts(): List<Artifact> = ranked.map { it.artifact }
+
+    private fun add(result: SearchResult.Success) {
+        val incoming = ArrayList<Ranked>(result.artifacts.size)
+        for (artifact in result.artifacts) {
+            val key = "${artifact.groupId}:${artifact.name}"
+            val candidate = Ranked(key, artifact, score(artifact, result.signals[artifact], result.source))
+            val existing = byCoordinates[key]
+            if (existing != null && existing.score >= candidate.score) {
+                continue
+            }
+            byCoordinates[key] = candidate
+            incoming.add(candidate)
+        }
+        if (incoming.isEmpty()) {
+            return
+        }
+        incoming.sortWith(ORDER)
+        ranked = merge(ranked.filter { it.isCurrent() }, incoming.filter { it.isCurrent() })
+    }
+
+    private fun update(artifact: Artifact) {
+        val key = "${artifact.groupId}:${artifact.name}"
+        val existing = byCoordinates[key] ?: return
+        val index = Collections.binarySearch(ranked, existing, ORDER)
+        if (index < 0) {
+            return
+        }
+        val updated = existing.copy(artifact = artifact)
+        byCoordinates[key] = updated
+        ranked[index] = updated
+    }
+
+    private fun Ranked.isCurrent() = byCoordinates[key] === this
+
+    private fun merge(left: List<Ranked>, right: List<Ranked>): ArrayList<Ranked> {
+        val merged = ArrayList<Ranked>(left.size + right.size)
+        var i = 0
+        var j = 0
+        while (i < left.size && j < right.size) {
+            merged.add(if (ORDER.compare(left[i], right[j]) <= 0) left[i++] else right[j++])
+        }
+        while (i < left.size) merged.add(left[i++])
+        while (j < right.size) merged.add(right[j++])
+        return merged
+    }
+
+    private fun score(artifact: Artifact, signals: ArtifactSignals?, source: Title?): Double {
+        var score = matchScore(artifact.groupId.toLowerCase(Locale.ROOT), artifact.name.toLowerCase(Locale.ROOT))
+        score += trust[source] ?: 0
+        if (signals != null) {
+            score += popularityScore(signals.versionCount) + recencyScore(signals.lastUpdated)
+        }
+        return score
+    }
+
+    private fun matchScore(group: String, name: String): Double {
+        if (needle.isEmpty()) {
+            return 0.0
+        }
+        val match = when {
+            "$group:$name" == needle -> EXACT_COORDINATES
+            name == needle -> EXACT_NAME
+            name.startsWith(needle) -> NAME_PREFIX
+            group == needle || group.endsWith(".$needle") -> EXACT_GROUP
+            name.contains(needle) -> NAME_CONTAINS
+            group.contains(needle) -> GROUP_CONTAINS
+            else -> 0.0
+        }
+        val tokenMatches = if (tokens.size < 2) 0.0 else {
+            tokens.count { name.contains(it) } * NAME_TOKEN + tokens.count { group.contains(it) } * GROUP_TOKEN
+        }
+        return match + tokenMatches
+    }
+
+    private fun popularityScore(versionCount: Int): Double {
+        if (versionCount <= 0) {
+            return 0.0
+        }
+        return min(MAX_POPULARITY, POPULARITY_WEIGHT * log10(1.0 + versionCount))
+    }
+
+    private fun recencyScore(lastUpdated: Long): Double {
+        if (lastUpdated <= 0) {
+            return 0.0
+        }
+        val ageInYears = max(0L, clock() - lastUpdated).toDouble() / YEAR_IN_MILLIS
+        return max(0.0, MAX_RECENCY - RECENCY_DECAY_PER_YEAR * ageInYears)
+    }
+
+    private data class Ranked(val key: String, val artifact: Artifact, val score: Double)
+
+    companion object {
+        /**
+         * Keyed by the repository titles used in [me.scana.okgradle.OkGradleService]. Offline hits rank just below
+         * the main repositories, which know newer versions of the same artifacts.
+         */
+        val DEFAULT_TRUST = mapOf("Google" to 10, "Maven" to 10, "Offline" to 8, "JitPack" to 4, "Bintray" to 2)
+
+        private val TOKEN_SEPARATORS = "[\\s:.\\-_]+".toRegex()
+        private val YEAR_IN_MILLIS = TimeUnit.DAYS.toMillis(365).toDouble()
+
+        private const val EXACT_COORDINATES = 120.0
+        private const val EXACT_NAME = 100.0
+        private const val NAME_PREFIX = 60.0
+        private const val EXACT_GROUP = 40.0
+        private const val NAME_CONTAINS = 30.0
+        private const val GROUP_CONTAINS = 15.0
+        private const val NAME_TOKEN = 10.0
+        private const val GROUP_TOKEN = 5.0
+        private const val POPULARITY_WEIGHT = 5.0
+        private const val MAX_POPULARITY = 15.0
+        private const val MAX_RECENCY = 10.0
+        private const val RECENCY_DECAY_PER_YEAR = 2.0
+
+        private val ORDER = compareByDescending<Ranked> { it.score }
+                .thenBy { it.artifact.name.length }
+                .thenBy { it.key }
+    }
+}
@@ -0,0 +1,188 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import java.util.*
+import kotlin.math.abs
+import kotlin.math.min
+
+/**
+ * Typo-tolerant lookup over the names of every artifact we have seen.
+ *
+ * Group ids, artifact names and the `-` separated parts of those names are kept sorted. A word is matched
+ * against all of them at once, the way a Levenshtein automaton would run over a trie of the terms, so only
+ * prefixes which can still lead to a close enough term are ever looked at. New terms are merged into the
+ * sorted array once per [addAll], so lookups never sort anything.
+ *
+ * Thread-safe.
+ */
+class FuzzyMatcher(private val maxArtifactsPerTerm: Int = DEFAULT_MAX_ARTIFACTS_PER_TERM) {
+
+    private var terms: Array<String> = emptyArray()
+    private val artifactsByTerm = HashMap<String, MutableList<Artifact>>()
+    private val seen = HashSet<String>()
+
+    @Synchronized
+    fun addAll(artifacts: Collection<Artifact>) {
+        val added = ArrayList<String>()
+        for (artifact in artifacts) {
+            if (!seen.add("${artifact.groupId}:${artifact.name}")) {
+                continue
+            }
+            termsOf(artifact).forEach { add(it, artifact, added) }
+        }
+        if (added.isNotEmpty()) {
+            added.sort()
+            terms = merge(terms, added)
+        }
+    }
+
+    @Synchronized
+    fun size() = terms.size
+
+    /**
+     * Corrects every misspelled word of [query], or returns null when there is nothing to correct.
+     */
+    @Synchronized
+    fun suggest(query: String, limit: Int = DEFAULT_LIMIT): Suggestion? {
+        val words = query.trim().toLowerCase(Locale.ROOT).split(WORD_SEPARATORS).filter { it.isNotEmpty() }
+        val artifacts = LinkedHashSet<Artifact>()
+        val corrected = words.map { word ->
+            val correction = correct(word) ?: return@map word
+            artifactsByTerm[correction]?.let { artifacts.addAll(it) }
+            correction
+        }
+        if (corrected == words) {
+            return null
+        }
+        return Suggestion(corrected.joinToString(" "), artifacts.take(limit))
+    }
+
+    /**
+     * Walks the sorted terms like a trie: the edit distance rows of a prefix shared with the previous term
+     * are reused, and once every entry of a row exceeds the allowed distance, all terms with that prefix are skipped.
+     */
+    private fun correct(word: String): String? {
+        if (word.length < MIN_WORD_LENGTH || isKnown(word)) {
+            return null
+        }
+        val maxDistance = if (word.length <= SHORT_WORD_LENGTH) 1 else 2
+        val sorted = terms
+        val rows = ArrayList<IntArray>()
+        rows.add(IntArray(word.length + 1) { it })
+        var previous = ""
+        var best: String? = null
+        var bestDistance = Int.MAX_VALUE
+        var index = 0
+        while (index < sorted.size) {
+            val term = sorted[index]
+            if (abs(term.length - word.length) > maxDistance) {
+                index++
+                continue
+            }
+            var depth = commonPrefixLength(term, previous)
+            var isPruned = false
+            while (depth < term.length && !isPruned) {
+                depth++
+                if (rows.size <= depth) {
+                    rows.add(IntArray(word.length + 1))
+                }
+                isPruned = nextRow(word, term[depth - 1], rows[depth - 1], rows[depth]) > maxDistance
+            }
+            previous = term.substring(0, depth)
+            if (isPruned) {
+                index = firstIndexAfterPrefix(sorted, previous)
+                continue
+            }
+            val distance = rows[depth][word.length]
+            if (distance <= maxDistance && isBetter(term, distance, best, bestDistance)) {
+                best = term
+                bestDistance = distance
+            }
+            index++
+        }
+        return best
+    }
+
+    private fun isKnown(word: String): Boolean {
+        val position = Arrays.binarySearch(terms, word)
+        val next = terms.getOrNull(if (position >= 0) position else -position - 1) ?: return false
+        return next.startsWith(word)
+    }
+
+    private fun isBetter(term: String, distance: Int, best: String?, bestDistance: Int): Boolean {
+        if (best == null || distance != bestDistance) {
+            return distance < bestDistance
+        }
+        val popularity = artifactsByTerm[term]?.size ?: 0
+        val bestPopularity = artifactsByTerm[best]?.size ?: 0
+        return popularity > bestPopularity || (popularity == bestPopularity && term < best)
+    }
+
+    private fun add(term: String, artifact: Artifact, added: MutableList<String>) {
+        val artifacts = artifactsByTerm.getOrPut(term) {
+            added.add(term)
+            ArrayList(1)
+        }
+        if (artifacts.size < maxArtifactsPerTerm) {
+            artifacts.add(artifact)
+        }
+    }
+
+    private fun merge(sorted: Array<String>, added: List<String>): Array<String> {
+        var i = 0
+        var j = 0
+        return Array(sorted.size + added.size) {
+            if (j == added.size || (i < sorted.size && sorted[i] < added[j])) sorted[i++] else added[j++]
+        }
+    }
+
+    private fun termsOf(artifact: Artifact): Set<String> {
+        val name = artifact.name.toLowerCase(Locale.ROOT)
+        val parts = name.split(TERM_SEPARATORS).filter { it.length >= MIN_WORD_LENGTH }
+        return (parts + name + artifact.groupId.toLowerCase(Locale.ROOT)).toSet()
+    }
+
+    /**
+     * Fills [row] with the edit distances between prefixes of [word] and the term ending with [char],
+     * and returns the smallest of them.
+     */
+    private fun nextRow(word: String, char: Char, previousRow: IntArray, row: IntArray): Int {
+        row[0] = previousRow[0] + 1
+        var smallest = row[0]
+        for (j in 1..word.length) {
+            val substitution = previousRow[j - 1] + if (word[j - 1] == char) 0 else 1
+            row[j] = min(substitution, min(previousRow[j], row[j - 1]) + 1)
+            smallest = min(smallest, row[j])
+        }
+        return smallest
+    }
+
+    private fun commonPrefixLength(first: String, second: String): Int {
+        val length = min(first.length, second.length)
+        var index = 0
+        while (index < length && first[index] == second[index]) {
+            index++
+        }
+        return index
+    }
+
+    private fun firstIndexAfterPrefix(sorted: Array<String>, prefix: String): Int {
+        val position = Arrays.binarySearch(sorted, prefix + Char.MAX_VALUE)
+        return if (position >= 0) position + 1 else -position - 1
+    }
+
+    /**
+     * @param artifacts artifacts with a name, or part of one, that a word was corrected to
+     */
+    data class Suggestion(val query: String, val artifacts: List<Artifact>)
+
+    companion object {
+        private const val DEFAULT_MAX_ARTIFACTS_PER_TERM = 8
+        private const val DEFAULT_LIMIT = 20
+        private const val MIN_WORD_LENGTH = 4
+        private const val SHORT_WORD_LENGTH = 5
+
+        private val WORD_SEPARATORS = "[\\s:]+".toRegex()
+        private val TERM_SEPARATORS = "[-_.]+".toRegex()
+    }
+}
@@ -0,0 +1,94 @@
+package me.scana.okgradle.data
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Counts durations in log-linear buckets, the way HdrHistogram does: every power of two is split into
+ * [SUB_BUCKETS] equal parts, so any recorded value is known within about 6% no matter how large it is.
+ *
+ * Values are kept in microseconds. Recording is lock-free; a reader may see a sample in the count
+ * before it shows up in the sum.
+ */
+class LatencyHistogram {
+
+    private val counts = AtomicLongArray(BUCKET_COUNT)
+    private val total = AtomicLong()
+    private val sumInMicros = AtomicLong()
+
+    fun record(duration: Long, unit: TimeUnit) {
+        val micros = unit.toMicros(duration).coerceIn(0, MAX_VALUE_IN_MICROS)
+        counts.incrementAndGet(bucketOf(micros))
+        sumInMicros.addAndGet(micros)
+        total.incrementAndGet()
+    }
+
+    val count: Long
+        get() = total.get()
+
+    val sum: Long
+        get() = sumInMicros.get()
+
+    /**
+     * @return the upper bound of the bucket holding the given percentile (0..100) in microseconds, 0 when empty
+     */
+    fun percentile(percentile: Double): Long {
+        val count = total.get()
+        if (count == 0L) {
+            return 0
+        }
+        val rank = Math.max(1L, Math.ceil(percentile / 100.0 * count).toLong())
+        var seen = 0L
+        for (bucket in 0 until BUCKET_COUNT) {
+            seen += counts.get(bucket)
+            if (seen >= rank) {
+                return upperBoundOf(bucket)
+            }
+        }
+        return MAX_VALUE_IN_MICROS
+    }
+
+    /**
+     * @return how many recorded values are at most [micros], counting whole buckets
+     */
+    fun countAtMost(micros: Long): Long {
+        var result = 0L
+        for (bucket in 0 until BUCKET_COUNT) {
+            if (upperBoundOf(bucket) > micros) {
+                break
+            }
+            result += counts.get(bucket)
+        }
+        return result
+    }
+
+    companion object {
+        private const val SUB_BUCKET_BITS = 4
+        private const val SUB_BUCKETS = 1 shl SUB_BUCKET_BITS
+        private const val LINEAR_LIMIT = SUB_BUCKETS * 2
+        private const val MAX_VALUE_IN_MICROS = (1L shl 40) - 1
+        private val BUCKET_COUNT = bucketOf(MAX_VALUE_IN_MICROS) + 1
+
+        /**
+         * Values below [LINEAR_LIMIT] get a bucket each. Above, a value with its highest bit at position `m`
+         * is shifted right by `m - SUB_BUCKET_BITS`, leaving [SUB_BUCKETS] possible top bit patterns per power of two.
+         */
+        private fun bucketOf(value: Long): Int {
+            if (value < LINEAR_LIMIT) {
+                return value.toInt()
+            }
+            val shift = 63 - java.lang.Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS
+            return shift * SUB_BUCKETS + (value shr shift).toInt()
+        }
+
+        private fun upperBoundOf(bucket: Int): Long {
+            if (bucket < LINEAR_LIMIT) {
+                return bucket.toLong()
+            }
+            val shift = bucket / SUB_BUCKETS - 1
+            val top = (bucket % SUB_BUCKETS + SUB_BUCKETS).toLong()
+            return ((top + 1) shl shift) - 1
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package me.scana.okgradle.data
+
+/**
+ * Remembers the latest [capacity] response times of remote searches.
+ */
+class LatencyTracker(private val capacity: Int = DEFAULT_CAPACITY) {
+
+    private val samples = LongArray(capacity)
+    private var count = 0
+    private var next = 0
+
+    @Synchronized
+    fun record(millis: Long) {
+        samples[next] = millis
+        next = (next + 1) % capacity
+        if (count < capacity) {
+            count++
+        }
+    }
+
+    val sampleCount: Int
+        @Synchronized get() = count
+
+    /**
+     * @return the given percentile (0..100) of recorded samples, or null when nothing has been recorded yet
+     */
+    @Synchronized
+    fun percentile(percentile: Int): Long? {
+        if (count == 0) {
+            return null
+        }
+        val sorted = samples.copyOf(count).apply { sort() }
+        val index = ((percentile / 100.0) * (count - 1)).toInt()
+        return sorted[index]
+    }
+
+    companion object {
+        const val DEFAULT_CAPACITY = 32
+    }
+}
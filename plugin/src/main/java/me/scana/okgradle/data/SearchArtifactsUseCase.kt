@@ -2,20 +2,142 @@ package me.scana.okgradle.data
 
 import io.reactivex.Observable
 import io.reactivex.Single
+import me.scana.okgradle.data.repository.Artifact
 import me.scana.okgradle.data.repository.ArtifactRepository
 import me.scana.okgradle.data.repository.ArtifactSearchException
+import me.scana.okgradle.data.repository.RepositoryHealth
 import me.scana.okgradle.data.repository.SearchResult
+import me.scana.okgradle.data.repository.VersionResolver
+import me.scana.okgradle.util.PluginEvents
+import java.util.concurrent.TimeUnit
 
 typealias Title = String
 
-class SearchArtifactsUseCase(private val repositories: Map<Title, ArtifactRepository>) {
+/**
+ * @param minQueryLength repositories are skipped for queries shorter than their minimum length
+ * @param maxResolvedVersions versions are resolved only for this many of the best ranked artifacts of a result, the ones
+ * likely to be visible
+ * @param fuzzyMatcher learns the names of every artifact found on [SearchSchedulers.cpu], so later typos of them can be
+ * corrected locally
+ * @param metrics receives per query and per repository timings and counts
+ * @param ticker monotonic time in nanoseconds the timings are taken with
+ */
+class SearchArtifactsUseCase(
+        private val repositories: Map<Title, ArtifactRepository>,
+        private val versionResolvers: Map<Title, VersionResolver> = emptyMap(),
+        private val schedulers: SearchSchedulers = SearchSchedulers.DEFAULT,
+        private val minQueryLength: Map<Title, Int> = emptyMap(),
+        private val maxResolvedVersions: Int = DEFAULT_MAX_RESOLVED_VERSIONS,
+        val latency: LatencyTracker = LatencyTracker(),
+        private val fuzzyMatcher: FuzzyMatcher? = null,
+        private val metrics: SearchMetrics? = null,
+        private val ticker: () -> Long = System::nanoTime
+) {
 
     fun search(query: String): Observable<SearchResult> {
-        return Single.concat(
-                repositories.map {
-                    it.value.search(query).onErrorReturn {
-                        t -> SearchResult.Error(ArtifactSearchException(it.key, t))
+        val results = Observable.merge(
+                eligibleRepositories(query).map {
+                    measuredSearch(it.key, query, search(it.value, query))
+                            .map { result -> if (result is SearchResult.Success) result.withSource(it.key) else result }
+                            .doOnSuccess { result -> if (result is SearchResult.Success) learn(result.artifacts) }
+                            .onErrorReturn { t -> SearchResult.Error(ArtifactSearchException(it.key, t)) }
+                            .flatMapObservable { result -> withVersionUpdates(it.key, query, result) }
+                }
+        )
+        return if (metrics == null || query.isEmpty()) results else measuredQuery(metrics, results)
+    }
+
+    fun health(): Map<Title, RepositoryHealth> = repositories.mapValues { it.value.health() }
+
+    fun isAvailableLocally(query: String): Boolean {
+        return eligibleRepositories(query).all { it.value.isAvailableLocally(query) }
+    }
+
+    private fun eligibleRepositories(query: String): Map<Title, ArtifactRepository> {
+        return repositories.filterKeys { query.length >= minQueryLength[it] ?: 0 }
+    }
+
+    private fun search(repository: ArtifactRepository, query: String): Single<SearchResult> {
+        if (query.isEmpty() || repository.isAvailableLocally(query)) {
+            return repository.search(query).subscribeOn(schedulers.cpu)
+        }
+        val scheduler = schedulers.io
+        return Single.defer {
+            val start = scheduler.now(TimeUnit.MILLISECONDS)
+            repository.search(query)
+                    .doOnSuccess {
+                        if (it is SearchResult.Success) {
+                            latency.record(scheduler.now(TimeUnit.MILLISECONDS) - start)
+                        }
+                    }
+        }.subscribeOn(scheduler)
+    }
+
+    private fun measuredQuery(metrics: SearchMetrics, results: Observable<SearchResult>): Observable<SearchResult> {
+        return Observable.defer {
+            val start = now()
+            var isFirst = true
+            results
+                    .doOnNext {
+                        if (isFirst) {
+                            isFirst = false
+                            metrics.timeToFirstResult.record(now() - start, TimeUnit.NANOSECONDS)
+                        }
+                    }
+                    .doOnComplete { metrics.timeToComplete.record(now() - start, TimeUnit.NANOSECONDS) }
+        }
+    }
+
+    private fun measuredSearch(title: Title, query: String, search: Single<SearchResult>): Single<SearchResult> {
+        val repositoryMetrics = metrics?.repository(title)
+        return Single.defer {
+            val start = now()
+            val span = PluginEvents.repositorySearch(title, query.length)
+            var isDone = false
+            repositoryMetrics?.requests?.incrementAndGet()
+            search
+                    .doOnEvent { result, _ ->
+                        isDone = true
+                        span.end((result as? SearchResult.Success)?.artifacts?.size ?: 0)
+                    }
+                    .doOnSuccess {
+                        repositoryMetrics?.total?.record(now() - start, TimeUnit.NANOSECONDS)
+                        if (it is SearchResult.Error) {
+                            repositoryMetrics?.onError(it.throwable)
+                        }
                     }
-        }).toObservable()
+                    .doOnError { repositoryMetrics?.onError(it) }
+                    .doOnDispose {
+                        if (!isDone) {
+                            span.end()
+                            repositoryMetrics?.cancellations?.incrementAndGet()
+                        }
+                    }
+        }
+    }
+
+    private fun learn(artifacts: List<Artifact>) {
+        val matcher = fuzzyMatcher ?: return
+        if (artifacts.isNotEmpty()) {
+            schedulers.cpu.scheduleDirect { matcher.addAll(artifacts) }
+        }
+    }
+
+    private fun now() = ticker()
+
+    private fun withVersionUpdates(title: Title, query: String, result: SearchResult): Observable<SearchResult> {
+        val resolver = versionResolvers[title]
+        if (resolver == null || result !is SearchResult.Success || result.artifacts.isEmpty()) {
+            return Observable.just(result)
+        }
+        val ranked = ArtifactRanker(query).rank(result) as SearchResult.Success
+        val updates = resolver.resolveVersions(ranked.artifacts.take(maxResolvedVersions))
+                .map<SearchResult> { SearchResult.VersionUpdate(it) }
+                .onErrorResumeNext(Observable.empty())
+        return Observable.just<SearchResult>(result).concatWith(updates)
+    }
+
+    companion object {
+        const val DEFAULT_MAX_RESOLVED_VERSIONS = 20
     }
 }
@@ -0,0 +1,165 @@
+package me.scana.okgradle.data
+
+import java.io.InterruptedIOException
+import java.net.SocketTimeoutException
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Where search time goes: per query, per repository and per network call.
+ *
+ * Everything is cumulative since the IDE started. [writeOpenMetrics] dumps it in the OpenMetrics text format,
+ * [summary] renders the same numbers for people.
+ */
+class SearchMetrics {
+
+    val timeToFirstResult = LatencyHistogram()
+    val timeToComplete = LatencyHistogram()
+
+    private val repositories = ConcurrentHashMap<Title, RepositoryMetrics>()
+    private val gauges = CopyOnWriteArrayList<Gauge>()
+
+    fun repository(title: Title): RepositoryMetrics = repositories.getOrPut(title) { RepositoryMetrics() }
+
+    /**
+     * Reports the current value of [value] with every dump, e.g. a cache hit rate.
+     */
+    fun gauge(name: String, help: String, labels: Map<String, String> = emptyMap(), value: () -> Double) {
+        gauges.add(Gauge(name, help, labels, value))
+    }
+
+    fun writeOpenMetrics(output: Appendable) {
+        val byTitle = TreeMap(repositories)
+        histogram(output, "ok_gradle_time_to_first_result_seconds", "Time from sending a query to its first result.", emptyMap(), timeToFirstResult)
+        histogram(output, "ok_gradle_time_to_complete_seconds", "Time from sending a query until every repository answered.", emptyMap(), timeToComplete)
+
+        counter(output, "ok_gradle_repository_requests", "Searches sent to a repository.", byTitle) { it.requests.get() }
+        counter(output, "ok_gradle_repository_errors", "Searches which failed, including timeouts.", byTitle) { it.errors.get() }
+        counter(output, "ok_gradle_repository_timeouts", "Searches which did not finish in time.", byTitle) { it.timeouts.get() }
+        counter(output, "ok_gradle_repository_cancellations", "Searches abandoned because the query changed.", byTitle) { it.cancellations.get() }
+
+        histogramFamily(output, "ok_gradle_repository_total_seconds", "Time a repository took to answer a search.", byTitle) { it.total }
+        histogramFamily(output, "ok_gradle_repository_network_seconds", "Time until response headers arrived.", byTitle) { it.network }
+        histogramFamily(output, "ok_gradle_repository_parse_seconds", "Time spent reading and parsing response bodies.", byTitle) { it.parse }
+
+        gauges.groupBy { it.name }.forEach { (name, family) ->
+            output.append("# TYPE $name gauge\n")
+            output.append("# HELP $name ${family.first().help}\n")
+            family.forEach { output.append("$name${labels(it.labels)} ${format(it.value())}\n") }
+        }
+        output.append("# EOF\n")
+    }
+
+    fun summary(): String {
+        val builder = StringBuilder()
+        builder.append("Queries: ${timeToComplete.count}\n")
+        builder.append("  first result  ${percentiles(timeToFirstResult)}\n")
+        builder.append("  complete      ${percentiles(timeToComplete)}\n")
+        TreeMap(repositories).forEach { (title, metrics) ->
+            builder.append("\n$title: ${metrics.requests.get()} requests, ${metrics.errors.get()} errors, ")
+            builder.append("${metrics.timeouts.get()} timeouts, ${metrics.cancellations.get()} cancelled\n")
+            builder.append("  total         ${percentiles(metrics.total)}\n")
+            if (metrics.network.count > 0) {
+                builder.append("  network       ${percentiles(metrics.network)}\n")
+                builder.append("  parse         ${percentiles(metrics.parse)}\n")
+            }
+        }
+        if (gauges.isNotEmpty()) {
+            builder.append("\n")
+            gauges.forEach { builder.append("${it.name}${labels(it.labels)} ${format(it.value())}\n") }
+        }
+        return builder.toString()
+    }
+
+    private fun percentiles(histogram: LatencyHistogram): String {
+        if (histogram.count == 0L) {
+            return "-"
+        }
+        return SUMMARY_PERCENTILES.joinToString("  ") { "p${format(it)} ${TimeUnit.MICROSECONDS.toMillis(histogram.percentile(it))} ms" }
+    }
+
+    private fun counter(output: Appendable, name: String, help: String, byTitle: Map<Title, RepositoryMetrics>, value: (RepositoryMetrics) -> Long) {
+        output.append("# TYPE $name counter\n")
+        output.append("# HELP $name $help\n")
+        byTitle.forEach { (title, metrics) -> output.append("${name}_total${labels(mapOf(REPOSITORY to title))} ${value(metrics)}\n") }
+    }
+
+    private fun histogramFamily(output: Appendable, name: String, help: String, byTitle: Map<Title, RepositoryMetrics>, histogram: (RepositoryMetrics) -> LatencyHistogram) {
+        output.append("# TYPE $name histogram\n")
+        output.append("# HELP $name $help\n")
+        byTitle.forEach { (title, metrics) -> histogramSamples(output, name, mapOf(REPOSITORY to title), histogram(metrics)) }
+    }
+
+    private fun histogram(output: Appendable, name: String, help: String, labels: Map<String, String>, histogram: LatencyHistogram) {
+        output.append("# TYPE $name histogram\n")
+        output.append("# HELP $name $help\n")
+        histogramSamples(output, name, labels, histogram)
+    }
+
+    private fun histogramSamples(output: Appendable, name: String, labels: Map<String, String>, histogram: LatencyHistogram) {
+        val count = histogram.count
+        BUCKET_BOUNDS_IN_SECONDS.forEach { bound ->
+            val atMost = Math.min(count, histogram.countAtMost((bound * MICROS_IN_SECOND).toLong()))
+            output.append("${name}_bucket${labels(labels + ("le" to format(bound)))} $atMost\n")
+        }
+        output.append("${name}_bucket${labels(labels + ("le" to "+Inf"))} $count\n")
+        output.append("${name}_count${labels(labels)} $count\n")
+        output.append("${name}_sum${labels(labels)} ${format(histogram.sum / MICROS_IN_SECOND)}\n")
+    }
+
+    private fun labels(labels: Map<String, String>): String {
+        if (labels.isEmpty()) {
+            return ""
+        }
+        return labels.entries.joinToString(",", "{", "}") { (key, value) ->
+            "$key=\"${value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")}\""
+        }
+    }
+
+    private fun format(value: Double): String {
+        return if (value == Math.floor(value) && !value.isInfinite()) value.toLong().toString() else value.toString()
+    }
+
+    /**
+     * @param network time until response headers arrived, per network call
+     * @param parse time spent reading and parsing the body, per network call
+     * @param total time until the repository answered a search, including local lookups
+     */
+    class RepositoryMetrics {
+        val requests = AtomicLong()
+        val errors = AtomicLong()
+        val timeouts = AtomicLong()
+        val cancellations = AtomicLong()
+
+        val network = LatencyHistogram()
+        val parse = LatencyHistogram()
+        val total = LatencyHistogram()
+
+        fun onError(throwable: Throwable) {
+            errors.incrementAndGet()
+            if (isTimeout(throwable)) {
+                timeouts.incrementAndGet()
+            }
+        }
+
+        private fun isTimeout(throwable: Throwable): Boolean = when (throwable) {
+            is TimeoutException, is SocketTimeoutException -> true
+            is InterruptedIOException -> throwable.message == "timeout"
+            else -> throwable.cause?.let { isTimeout(it) } ?: false
+        }
+    }
+
+    private class Gauge(val name: String, val help: String, val labels: Map<String, String>, val value: () -> Double)
+
+    companion object {
+        private const val REPOSITORY = "repository"
+        private const val MICROS_IN_SECOND = 1_000_000.0
+
+        private val SUMMARY_PERCENTILES = listOf(50.0, 90.0, 99.0)
+        private val BUCKET_BOUNDS_IN_SECONDS = listOf(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0)
+    }
+}
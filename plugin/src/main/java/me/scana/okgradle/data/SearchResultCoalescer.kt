@@ -0,0 +1,69 @@
+package me.scana.okgradle.data
+
+import io.reactivex.Observable
+import io.reactivex.ObservableSource
+import io.reactivex.ObservableTransformer
+import io.reactivex.Scheduler
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.SearchResult
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects search results arriving within one frame and emits them as a single [ResultBatch],
+ * so a burst of repository responses and version updates costs the list one layout and repaint.
+ *
+ * A frame starts with the first result after a quiet period; nothing is emitted while no results arrive.
+ */
+class SearchResultCoalescer(
+        private val scheduler: Scheduler,
+        private val frameInMillis: Long = FRAME_IN_MILLIS
+) : ObservableTransformer<SearchResult, ResultBatch> {
+
+    override fun apply(upstream: Observable<SearchResult>): ObservableSource<ResultBatch> {
+        return upstream.publish { results ->
+            val frameEnds = results
+                    .throttleFirst(frameInMillis, TimeUnit.MILLISECONDS, scheduler)
+                    .flatMap { Observable.timer(frameInMillis, TimeUnit.MILLISECONDS, scheduler) }
+            results.buffer(frameEnds)
+                    .filter { it.isNotEmpty() }
+                    .map { batch(it) }
+        }
+    }
+
+    private fun batch(results: List<SearchResult>): ResultBatch {
+        var artifacts: List<Artifact>? = null
+        val versionUpdates = LinkedHashMap<String, Artifact>()
+        var suggestion: String? = null
+        val errors = mutableListOf<Throwable>()
+        for (result in results) {
+            when (result) {
+                is SearchResult.Success -> {
+                    artifacts = result.artifacts
+                    suggestion = result.suggestion ?: suggestion
+                }
+                is SearchResult.VersionUpdate -> versionUpdates["${result.artifact.groupId}:${result.artifact.name}"] = result.artifact
+                is SearchResult.Error -> errors.add(result.throwable)
+            }
+        }
+        val snapshot = artifacts ?: return ResultBatch(null, versionUpdates.values.toList(), suggestion, errors)
+        val updated = snapshot.map { versionUpdates["${it.groupId}:${it.name}"] ?: it }
+        return ResultBatch(updated, emptyList(), suggestion, errors)
+    }
+
+    companion object {
+        const val FRAME_IN_MILLIS = 33L
+    }
+}
+
+/**
+ * Everything the view has to apply at once.
+ *
+ * @param artifacts new contents of the list, or null when it stays as it is
+ * @param versionUpdates artifacts to update in place, when [artifacts] is null
+ */
+data class ResultBatch(
+        val artifacts: List<Artifact>?,
+        val versionUpdates: List<Artifact>,
+        val suggestion: String?,
+        val errors: List<Throwable>
+)
@@ -0,0 +1,68 @@
+package me.scana.okgradle.data
+
+import io.reactivex.Scheduler
+import io.reactivex.schedulers.Schedulers
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import javax.swing.SwingUtilities
+
+/**
+ * Threads the search pipeline runs on.
+ *
+ * @param io blocking network and disk calls
+ * @param cpu local lookups and ranking; a small pool of our own, so we never take RxJava's shared computation threads
+ * @param ui everything that touches the view
+ */
+class SearchSchedulers(
+        val io: Scheduler,
+        val cpu: Scheduler,
+        val ui: Scheduler
+) {
+
+    companion object {
+        private const val MAX_IO_THREADS = 8
+        private const val MAX_CPU_THREADS = 2
+        private const val IDLE_THREAD_TIMEOUT_IN_SECONDS = 30L
+
+        val DEFAULT: SearchSchedulers by lazy {
+            SearchSchedulers(
+                    io = Schedulers.from(pool("ok-gradle-io", MAX_IO_THREADS)),
+                    cpu = Schedulers.from(pool("ok-gradle-cpu", Math.min(MAX_CPU_THREADS, Runtime.getRuntime().availableProcessors()))),
+                    ui = Schedulers.from(Executor { SwingUtilities.invokeLater(it) })
+            )
+        }
+
+        /**
+         * Runs every stage on [scheduler], e.g. a `TestScheduler` or `Schedulers.trampoline()` in tests.
+         */
+        fun using(scheduler: Scheduler) = SearchSchedulers(scheduler, scheduler, scheduler)
+
+        private fun pool(name: String, threads: Int): Executor {
+            return ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    IDLE_THREAD_TIMEOUT_IN_SECONDS,
+                    TimeUnit.SECONDS,
+                    LinkedBlockingQueue<Runnable>(),
+                    DaemonThreadFactory(name)
+            ).apply {
+                allowCoreThreadTimeOut(true)
+            }
+        }
+    }
+}
+
+private class DaemonThreadFactory(private val prefix: String) : ThreadFactory {
+
+    private val counter = AtomicInteger()
+
+    override fun newThread(runnable: Runnable): Thread {
+        return Thread(runnable, "$prefix-${counter.incrementAndGet()}").apply {
+            isDaemon = true
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package me.scana.okgradle.data.repository
+
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.StandardOpenOption
+import java.util.*
+
+/**
+ * Read-only view over a binary index of artifacts, used for Google Maven and for the local caches.
+ *
+ * Layout (big-endian):
+ * header | entries (group, artifact, version string offsets) | trigram table (key, postings offset, count) |
+ * postings (entry indexes) | strings (length-prefixed UTF-8).
+ *
+ * Entries are sorted by `groupId:artifactId`, trigram keys are sorted, so lookups are binary searches
+ * followed by posting list intersection. Only absolute reads are used, which keeps a single instance
+ * safe to share between threads.
+ */
+class ArtifactIndex private constructor(private val buffer: ByteBuffer) {
+
+    val createdAt: Long = buffer.getLong(CREATED_AT_POSITION)
+    val size: Int = buffer.getInt(ENTRY_COUNT_POSITION)
+
+    private val trigramCount = buffer.getInt(TRIGRAM_COUNT_POSITION)
+    private val entriesOffset = buffer.getInt(ENTRIES_OFFSET_POSITION)
+    private val trigramsOffset = buffer.getInt(TRIGRAMS_OFFSET_POSITION)
+    private val postingsOffset = buffer.getInt(POSTINGS_OFFSET_POSITION)
+    private val stringsOffset = buffer.getInt(STRINGS_OFFSET_POSITION)
+
+    fun find(query: String): List<Artifact> {
+        val needle = query.toLowerCase(Locale.ROOT)
+        if (needle.isEmpty()) {
+            return emptyList()
+        }
+        val candidates = if (needle.length < TRIGRAM_LENGTH) {
+            shortQueryCandidates(needle)
+        } else {
+            trigramCandidates(needle).filter { coordinatesAt(it).contains(needle) }
+        }
+        return candidates.map { artifactAt(it) }
+    }
+
+    fun artifacts(): List<Artifact> = List(size) { artifactAt(it) }
+
+    fun artifactAt(index: Int): Artifact {
+        val position = entriesOffset + index * ENTRY_SIZE
+        return Artifact(
+                stringAt(buffer.getInt(position)),
+                stringAt(buffer.getInt(position + 4)),
+                stringAt(buffer.getInt(position + 8))
+        )
+    }
+
+    private fun coordinatesAt(index: Int): String {
+        val position = entriesOffset + index * ENTRY_SIZE
+        return coordinates(stringAt(buffer.getInt(position)), stringAt(buffer.getInt(position + 4)))
+    }
+
+    private fun stringAt(offset: Int): String {
+        val position = stringsOffset + offset
+        val length = buffer.getShort(position).toInt() and 0xFFFF
+        val bytes = ByteArray(length)
+        val view = buffer.duplicate()
+        view.position(position + 2)
+        view.get(bytes)
+        return String(bytes, StandardCharsets.UTF_8)
+    }
+
+    /**
+     * Every indexed text is padded, so any one or two character substring is a prefix of a trigram.
+     * Those trigrams form a contiguous range of the sorted table.
+     */
+    private fun shortQueryCandidates(needle: String): List<Int> {
+        val from = if (needle.length == 1) trigramKey(needle[0], MIN_CHAR, MIN_CHAR) else trigramKey(needle[0], needle[1], MIN_CHAR)
+        val to = if (needle.length == 1) trigramKey(needle[0], MAX_CHAR, MAX_CHAR) else trigramKey(needle[0], needle[1], MAX_CHAR)
+        val result = TreeSet<Int>()
+        var slot = lowerBound(from)
+        while (slot < trigramCount && trigramKeyAt(slot) <= to) {
+            postingsAt(slot).forEach { result.add(it) }
+            slot++
+        }
+        return result.toList()
+    }
+
+    private fun trigramCandidates(needle: String): List<Int> {
+        val postings = trigrams(needle)
+                .distinct()
+                .map {
+                    val slot = lowerBound(it)
+                    if (slot >= trigramCount || trigramKeyAt(slot) != it) {
+                        return emptyList()
+                    }
+                    postingsAt(slot)
+                }
+                .sortedBy { it.size }
+        return postings.drop(1)
+                .fold(postings.first()) { acc, next -> intersect(acc, next) }
+                .toList()
+    }
+
+    private fun lowerBound(key: Long): Int {
+        var low = 0
+        var high = trigramCount
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (trigramKeyAt(middle) < key) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+        return low
+    }
+
+    private fun trigramKeyAt(slot: Int) = buffer.getLong(trigramsOffset + slot * TRIGRAM_SIZE)
+
+    private fun postingsAt(slot: Int): IntArray {
+        val position = trigramsOffset + slot * TRIGRAM_SIZE
+        val offset = buffer.getInt(position + 8)
+        val count = buffer.getInt(position + 12)
+        return IntArray(count) { buffer.getInt(postingsOffset + (offset + it) * 4) }
+    }
+
+    private fun intersect(first: IntArray, second: IntArray): IntArray {
+        val result = IntArray(minOf(first.size, second.size))
+        var i = 0
+        var j = 0
+        var size = 0
+        while (i < first.size && j < second.size) {
+            when {
+                first[i] < second[j] -> i++
+                first[i] > second[j] -> j++
+                else -> {
+                    result[size++] = first[i]
+                    i++
+                    j++
+                }
+            }
+        }
+        return result.copyOf(size)
+    }
+
+    companion object {
+        const val FORMAT_VERSION = 1
+
+        private const val MAGIC = 0x4F4B4749 // "OKGI"
+        private const val TRIGRAM_LENGTH = 3
+        private const val ENTRY_SIZE = 12
+        private const val TRIGRAM_SIZE = 16
+        private const val HEADER_SIZE = 40
+        private const val MIN_CHAR = '\u0000'
+        private const val MAX_CHAR = '\uFFFF'
+        private const val PADDING = "\u0000\u0000"
+
+        private const val CREATED_AT_POSITION = 8
+        private const val ENTRY_COUNT_POSITION = 16
+        private const val TRIGRAM_COUNT_POSITION = 20
+        private const val ENTRIES_OFFSET_POSITION = 24
+        private const val TRIGRAMS_OFFSET_POSITION = 28
+        private const val POSTINGS_OFFSET_POSITION = 32
+        private const val STRINGS_OFFSET_POSITION = 36
+
+        val EMPTY: ArtifactIndex by lazy { read(ByteBuffer.wrap(write(emptyList(), 0L))) }
+
+        fun read(buffer: ByteBuffer): ArtifactIndex {
+            require(buffer.capacity() >= HEADER_SIZE && buffer.getInt(0) == MAGIC) { "Not an artifact index" }
+            require(buffer.getInt(4) == FORMAT_VERSION) { "Unsupported artifact index version: ${buffer.getInt(4)}" }
+            return ArtifactIndex(buffer)
+        }
+
+        fun map(file: File): ArtifactIndex {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ).use {
+                read(it.map(FileChannel.MapMode.READ_ONLY, 0, it.size()))
+            }
+        }
+
+        fun write(artifacts: Collection<Artifact>, createdAt: Long): ByteArray {
+            return ByteArrayOutputStream().also { write(artifacts, createdAt, it) }.toByteArray()
+        }
+
+        fun write(artifacts: Collection<Artifact>, createdAt: Long, output: OutputStream) {
+            val newestVersion = compareBy(VersionComparator, Artifact::version)
+            val entries = artifacts
+                    .groupBy { coordinates(it.groupId, it.name) }
+                    .map { (_, duplicates) -> duplicates.maxWith(newestVersion)!! }
+                    .sortedBy { coordinates(it.groupId, it.name) }
+
+            val strings = ByteArrayOutputStream()
+            val stringsOutput = DataOutputStream(strings)
+            val stringOffsets = HashMap<String, Int>()
+            fun offsetOf(value: String) = stringOffsets.getOrPut(value) {
+                val offset = stringsOutput.size()
+                val bytes = value.toByteArray(StandardCharsets.UTF_8)
+                stringsOutput.writeShort(bytes.size)
+                stringsOutput.write(bytes)
+                offset
+            }
+
+            val postings = TreeMap<Long, MutableList<Int>>()
+            val entryOffsets = entries.mapIndexed { index, artifact ->
+                trigrams(coordinates(artifact.groupId, artifact.name) + PADDING)
+                        .forEach {
+                            val list = postings.getOrPut(it) { mutableListOf() }
+                            if (list.lastOrNull() != index) {
+                                list.add(index)
+                            }
+                        }
+                intArrayOf(offsetOf(artifact.groupId), offsetOf(artifact.name), offsetOf(artifact.version))
+            }
+
+            val entriesOffset = HEADER_SIZE
+            val trigramsOffset = entriesOffset + entries.size * ENTRY_SIZE
+            val postingsOffset = trigramsOffset + postings.size * TRIGRAM_SIZE
+            val stringsOffset = postingsOffset + postings.values.sumBy { it.size } * 4
+
+            with(DataOutputStream(output)) {
+                writeInt(MAGIC)
+                writeInt(FORMAT_VERSION)
+                writeLong(createdAt)
+                writeInt(entries.size)
+                writeInt(postings.size)
+                writeInt(entriesOffset)
+                writeInt(trigramsOffset)
+                writeInt(postingsOffset)
+                writeInt(stringsOffset)
+                entryOffsets.forEach { offsets -> offsets.forEach { writeInt(it) } }
+                var postingOffset = 0
+                postings.forEach { (key, indexes) ->
+                    writeLong(key)
+                    writeInt(postingOffset)
+                    writeInt(indexes.size)
+                    postingOffset += indexes.size
+                }
+                postings.values.forEach { indexes -> indexes.forEach { writeInt(it) } }
+                write(strings.toByteArray())
+                flush()
+            }
+        }
+
+        private fun coordinates(groupId: String, artifactId: String) = "$groupId:$artifactId".toLowerCase(Locale.ROOT)
+
+        private fun trigrams(text: String): List<Long> {
+            return (0..text.length - TRIGRAM_LENGTH).map { trigramKey(text[it], text[it + 1], text[it + 2]) }
+        }
+
+        private fun trigramKey(first: Char, second: Char, third: Char): Long {
+            return (first.toLong() shl 32) or (second.toLong() shl 16) or third.toLong()
+        }
+    }
+}
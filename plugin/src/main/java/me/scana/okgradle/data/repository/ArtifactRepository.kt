@@ -4,4 +4,11 @@ import io.reactivex.Single
 
 interface ArtifactRepository {
     fun search(query: String): Single<SearchResult>
-}
\ No newline at end of file
+
+    /**
+     * True when [search] can answer [query] without going to the network.
+     */
+    fun isAvailableLocally(query: String): Boolean = false
+
+    fun health(): RepositoryHealth = RepositoryHealth.HEALTHY
+}
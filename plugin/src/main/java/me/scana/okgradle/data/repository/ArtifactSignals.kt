@@ -0,0 +1,9 @@
+package me.scana.okgradle.data.repository
+
+/**
+ * Popularity hints some backends return along with an artifact.
+ *
+ * @param versionCount number of published versions, 0 when unknown
+ * @param lastUpdated publication time of the latest version in epoch millis, 0 when unknown
+ */
+data class ArtifactSignals(val versionCount: Int = 0, val lastUpdated: Long = 0)
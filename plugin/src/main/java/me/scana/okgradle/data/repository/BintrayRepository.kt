@@ -2,28 +2,26 @@ package me.scana.okgradle.data.repository
 
 import com.google.gson.Gson
 import io.reactivex.Single
-import me.scana.okgradle.util.fromJson
 import okhttp3.HttpUrl
 import okhttp3.HttpUrl.Companion.toHttpUrl
 import okhttp3.Request
 
 class BintrayRepository(private val networkClient: NetworkClient, private val gson: Gson) : ArtifactRepository {
 
+    private val responseReader = BintrayResponseReader()
+
     companion object {
         val BINTRAY_URL: HttpUrl = "https://api.bintray.com/search/packages/maven".toHttpUrl()
     }
 
     override fun search(query: String): Single<SearchResult> {
-        return Single.create {
-            val result = when {
-                query.isEmpty() -> SearchResult.Success()
-                else -> findArtifacts(query)
-            }
-            it.onSuccess(result)
+        return when {
+            query.isEmpty() -> Single.just(SearchResult.Success())
+            else -> findArtifacts(query)
         }
     }
 
-    private fun findArtifacts(query: String): SearchResult {
+    private fun findArtifacts(query: String): Single<SearchResult> {
         val url = BINTRAY_URL.newBuilder()
                 .addQueryParameter("a", "*$query*")
                 .addQueryParameter("repo", "jcenter")
@@ -34,18 +32,14 @@ class BintrayRepository(private val networkClient: NetworkClient, private val gs
                 .url(url)
                 .build()
 
-        val response = networkClient.execute(request) {
-            val result = gson.fromJson<List<BintrayResult>>(this.charStream())
-            result.map {
-                val (groupId, artifactId) = it.name.split(":".toRegex(), 2)
-                Artifact(groupId, artifactId, it.versions.first())
+        return networkClient.call(request) {
+            responseReader.read(gson.newJsonReader(this.charStream()))
+        }.map { response ->
+            when (response) {
+                is NetworkResult.Success -> SearchResult.Success(response.data)
+                is NetworkResult.Failure -> SearchResult.Error(response.throwable)
             }
         }
-
-        return when(response) {
-            is NetworkResult.Success -> SearchResult.Success(response.data)
-            is NetworkResult.Failure -> SearchResult.Error(response.throwable)
-        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package me.scana.okgradle.data.repository
+
+import io.reactivex.Single
+import java.util.*
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Keeps the most recent successful results of [delegate] in memory, each for [timeToLiveInMillis].
+ *
+ * While the user types, a query which extends a cached exhaustive result (e.g. "retro" after "retr")
+ * is answered by filtering that result locally instead of asking [delegate] again.
+ */
+class CachingArtifactRepository(
+        private val delegate: ArtifactRepository,
+        private val timeToLiveInMillis: Long = DEFAULT_TIME_TO_LIVE_IN_MILLIS,
+        private val maxEntries: Int = DEFAULT_MAX_ENTRIES,
+        private val clock: () -> Long = System::currentTimeMillis
+) : ArtifactRepository {
+
+    private val results = object : LinkedHashMap<String, CachedResult>(maxEntries, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CachedResult>) = size > maxEntries
+    }
+
+    private val hits = AtomicLong()
+    private val prefixHits = AtomicLong()
+    private val misses = AtomicLong()
+
+    override fun search(query: String): Single<SearchResult> {
+        if (query.isEmpty()) {
+            return delegate.search(query)
+        }
+        cached(query)?.let {
+            hits.incrementAndGet()
+            return Single.just(it)
+        }
+        fromPrefix(query)?.let {
+            prefixHits.incrementAndGet()
+            store(query, it)
+            return Single.just(it.result)
+        }
+        misses.incrementAndGet()
+        return delegate.search(query)
+                .doOnSuccess { if (it is SearchResult.Success) store(query, CachedResult(it, clock())) }
+    }
+
+    override fun isAvailableLocally(query: String): Boolean {
+        return cached(query) != null || longestExhaustivePrefix(query) != null || delegate.isAvailableLocally(query)
+    }
+
+    override fun health() = delegate.health()
+
+    fun stats() = CacheStats(hits.get(), prefixHits.get(), misses.get())
+
+    private fun cached(query: String): SearchResult.Success? = synchronized(results) { fresh(query)?.result }
+
+    private fun store(query: String, cached: CachedResult) = synchronized(results) { results[query] = cached }
+
+    /**
+     * Must hold the lock on [results].
+     */
+    private fun fresh(query: String): CachedResult? {
+        val entry = results[query] ?: return null
+        if (clock() - entry.storedAt >= timeToLiveInMillis) {
+            results.remove(query)
+            return null
+        }
+        return entry
+    }
+
+    private fun longestExhaustivePrefix(query: String): CachedResult? = synchronized(results) {
+        (query.length - 1 downTo 1)
+                .asSequence()
+                .mapNotNull { fresh(query.substring(0, it)) }
+                .firstOrNull { it.result.isExhaustive }
+    }
+
+    /**
+     * The filtered result expires together with the one it was taken from.
+     */
+    private fun fromPrefix(query: String): CachedResult? {
+        val prefixCached = longestExhaustivePrefix(query) ?: return null
+        val prefixResult = prefixCached.result
+        val needle = query.toLowerCase(Locale.ROOT)
+        val artifacts = prefixResult.artifacts.filter {
+            "${it.groupId}:${it.name}".toLowerCase(Locale.ROOT).contains(needle)
+        }
+        return CachedResult(SearchResult.Success(artifacts, isExhaustive = true, signals = prefixResult.signals), prefixCached.storedAt)
+    }
+
+    private class CachedResult(val result: SearchResult.Success, val storedAt: Long)
+
+    data class CacheStats(val hits: Long, val prefixHits: Long, val misses: Long) {
+        val hitRate: Double
+            get() = if (hits + prefixHits + misses == 0L) 0.0 else (hits + prefixHits).toDouble() / (hits + prefixHits + misses)
+    }
+
+    companion object {
+        const val DEFAULT_MAX_ENTRIES = 64
+        val DEFAULT_TIME_TO_LIVE_IN_MILLIS = TimeUnit.MINUTES.toMillis(5)
+    }
+}
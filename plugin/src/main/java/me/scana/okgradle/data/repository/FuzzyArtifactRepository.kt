@@ -0,0 +1,42 @@
+package me.scana.okgradle.data.repository
+
+import io.reactivex.Scheduler
+import io.reactivex.Single
+import me.scana.okgradle.data.FuzzyMatcher
+import me.scana.okgradle.data.SearchSchedulers
+import java.util.*
+
+/**
+ * Answers every search with a "did you mean" suggestion and the artifacts it would find, when some word
+ * of the query looks like a typo of a known name.
+ *
+ * Names come from [indexes], which are read into [matcher] in the background whenever one of them
+ * is replaced, and from whatever else is added to [matcher], e.g. results of other repositories.
+ */
+class FuzzyArtifactRepository(
+        private val matcher: FuzzyMatcher,
+        private val indexes: List<() -> ArtifactIndex>,
+        private val scheduler: Scheduler = SearchSchedulers.DEFAULT.io
+) : ArtifactRepository {
+
+    private val absorbed = Collections.newSetFromMap(WeakHashMap<ArtifactIndex, Boolean>())
+
+    override fun search(query: String): Single<SearchResult> {
+        return Single.fromCallable {
+            absorbNewIndexes()
+            val suggestion = matcher.suggest(query) ?: return@fromCallable SearchResult.Success()
+            SearchResult.Success(suggestion.artifacts, suggestion.query)
+        }
+    }
+
+    override fun isAvailableLocally(query: String) = true
+
+    private fun absorbNewIndexes() {
+        for (index in indexes.map { it() }) {
+            val isNew = synchronized(absorbed) { absorbed.add(index) }
+            if (isNew) {
+                scheduler.scheduleDirect { matcher.addAll(index.artifacts()) }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package me.scana.okgradle.data.repository
+
+import com.intellij.openapi.diagnostic.Logger
+import io.reactivex.Scheduler
+import me.scana.okgradle.data.SearchSchedulers
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Owns the current [ArtifactIndex].
+ *
+ * The index bundled with the plugin is copied into [directory] and memory-mapped from there. Once it gets
+ * older than [MAX_INDEX_AGE_IN_MILLIS], a fresh one is downloaded in the background and swapped in,
+ * so the artifact list stays current between plugin releases. After a failed download the next one waits for
+ * [RETRY_INTERVAL_IN_MILLIS], so a stale index doesn't start one per query. Replaced index files may still be mapped,
+ * so they are only deleted the next time the store loads.
+ */
+class GoogleIndexStore(
+        private val directory: File?,
+        private val fetcher: GoogleMavenIndexFetcher,
+        private val scheduler: Scheduler = SearchSchedulers.DEFAULT.io,
+        private val bundledIndex: () -> InputStream? = { GoogleIndexStore::class.java.getResourceAsStream(BUNDLED_INDEX) },
+        private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    @Volatile
+    private var current: ArtifactIndex? = null
+    private val isUpdating = AtomicBoolean()
+    @Volatile
+    private var lastUpdateAttempt: Long? = null
+
+    fun index(): ArtifactIndex {
+        val index = current ?: load()
+        val now = clock()
+        val lastAttempt = lastUpdateAttempt
+        if (now - index.createdAt > MAX_INDEX_AGE_IN_MILLIS && (lastAttempt == null || now - lastAttempt >= RETRY_INTERVAL_IN_MILLIS)) {
+            updateInBackground()
+        }
+        return index
+    }
+
+    @Synchronized
+    private fun load(): ArtifactIndex {
+        current?.let { return it }
+        val index = try {
+            if (directory != null) loadFromDirectory(directory) else loadFromResources()
+        } catch (exception: IOException) {
+            null
+        } catch (exception: IllegalArgumentException) {
+            null
+        } ?: ArtifactIndex.EMPTY
+        current = index
+        return index
+    }
+
+    private fun loadFromResources(): ArtifactIndex? {
+        val bytes = bundledIndex()?.use { it.readBytes() } ?: return null
+        return ArtifactIndex.read(ByteBuffer.wrap(bytes))
+    }
+
+    private fun loadFromDirectory(directory: File): ArtifactIndex? {
+        directory.mkdirs()
+        val bundled = loadFromResources()
+        val newest = indexFiles(directory).firstOrNull()
+        if (bundled != null && (newest == null || bundled.createdAt > createdAt(newest))) {
+            bundledIndex()?.use { store(directory, bundled.createdAt) { target -> Files.copy(it, target.toPath(), StandardCopyOption.REPLACE_EXISTING) } }
+        }
+        val indexFiles = indexFiles(directory)
+        indexFiles.drop(1).forEach { it.delete() }
+        return indexFiles.firstOrNull()?.let { ArtifactIndex.map(it) }
+    }
+
+    private fun updateInBackground() {
+        if (directory == null || !isUpdating.compareAndSet(false, true)) {
+            return
+        }
+        lastUpdateAttempt = clock()
+        scheduler.scheduleDirect {
+            try {
+                val result = fetcher.fetch()
+                if (result is NetworkResult.Success && result.data.isNotEmpty()) {
+                    val createdAt = clock()
+                    val file = store(directory, createdAt) { target ->
+                        target.outputStream().buffered().use { ArtifactIndex.write(result.data, createdAt, it) }
+                    }
+                    current = ArtifactIndex.map(file)
+                }
+            } catch (exception: IOException) {
+                // keep serving the current index, next store will try again
+            } catch (exception: Exception) {
+                logger.warn("Failed to update the Google index", exception)
+            } finally {
+                isUpdating.set(false)
+            }
+        }
+    }
+
+    private fun store(directory: File, createdAt: Long, write: (File) -> Unit): File {
+        val temporary = File(directory, "$INDEX_FILE_PREFIX$createdAt.tmp")
+        val target = File(directory, "$INDEX_FILE_PREFIX$createdAt$INDEX_FILE_SUFFIX")
+        write(temporary)
+        Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        return target
+    }
+
+    private fun indexFiles(directory: File): List<File> {
+        return directory.listFiles { file -> file.name.startsWith(INDEX_FILE_PREFIX) && file.name.endsWith(INDEX_FILE_SUFFIX) }
+                .orEmpty()
+                .sortedByDescending { createdAt(it) }
+    }
+
+    private fun createdAt(file: File): Long {
+        return file.name.removePrefix(INDEX_FILE_PREFIX).removeSuffix(INDEX_FILE_SUFFIX).toLongOrNull() ?: 0L
+    }
+
+    companion object {
+        private val logger: Logger = Logger.getInstance(GoogleIndexStore::class.java)
+
+        const val BUNDLED_INDEX = "/google-index.bin"
+
+        private const val INDEX_FILE_PREFIX = "google-index-"
+        private const val INDEX_FILE_SUFFIX = ".bin"
+        private val MAX_INDEX_AGE_IN_MILLIS = TimeUnit.DAYS.toMillis(7)
+        private val RETRY_INTERVAL_IN_MILLIS = TimeUnit.HOURS.toMillis(1)
+    }
+}
@@ -0,0 +1,95 @@
+package me.scana.okgradle.data.repository
+
+import okhttp3.HttpUrl
+import okhttp3.Request
+import okhttp3.ResponseBody
+import javax.xml.stream.XMLInputFactory
+import javax.xml.stream.XMLStreamConstants
+
+/**
+ * Downloads the list of artifacts published in Google's Maven repository:
+ * `master-index.xml` names the groups, each group's `group-index.xml` lists its artifacts and versions.
+ */
+class GoogleMavenIndexFetcher(private val networkClient: NetworkClient) {
+
+    private val xmlInputFactory = XMLInputFactory.newInstance()
+
+    fun fetch(): NetworkResult<List<Artifact>> {
+        val groups = networkClient.execute(request(GoogleRepository.GOOGLE_MAVEN_URL.resolve(MASTER_INDEX)!!)) {
+            parseMasterIndex(this)
+        }
+        if (groups is NetworkResult.Failure) {
+            return NetworkResult.Failure(groups.throwable)
+        }
+        val artifacts = mutableListOf<Artifact>()
+        (groups as NetworkResult.Success).data.forEach { groupId ->
+            val url = GoogleRepository.GOOGLE_MAVEN_URL.newBuilder()
+                    .addPathSegments(groupId.replace('.', '/'))
+                    .addPathSegment(GROUP_INDEX)
+                    .build()
+            val result = networkClient.execute(request(url)) { parseGroupIndex(groupId, this) }
+            when (result) {
+                is NetworkResult.Success -> artifacts.addAll(result.data)
+                is NetworkResult.Failure -> return NetworkResult.Failure(result.throwable)
+            }
+        }
+        return NetworkResult.Success(artifacts)
+    }
+
+    private fun request(url: HttpUrl) = Request.Builder().url(url).build()
+
+    private fun parseMasterIndex(body: ResponseBody): List<String> {
+        val groups = mutableListOf<String>()
+        val reader = xmlInputFactory.createXMLStreamReader(body.charStream())
+        var depth = 0
+        while (reader.hasNext()) {
+            when (reader.next()) {
+                XMLStreamConstants.START_ELEMENT -> {
+                    depth++
+                    if (depth == 2) {
+                        groups.add(reader.localName)
+                    }
+                }
+                XMLStreamConstants.END_ELEMENT -> depth--
+            }
+        }
+        return groups
+    }
+
+    private fun parseGroupIndex(groupId: String, body: ResponseBody): List<Artifact> {
+        val artifacts = mutableListOf<Artifact>()
+        val reader = xmlInputFactory.createXMLStreamReader(body.charStream())
+        var depth = 0
+        while (reader.hasNext()) {
+            when (reader.next()) {
+                XMLStreamConstants.START_ELEMENT -> {
+                    depth++
+                    if (depth == 2) {
+                        val versions = reader.getAttributeValue(null, VERSIONS_ATTRIBUTE)
+                                ?.split(',')
+                                ?.filter { it.isNotBlank() }
+                                .orEmpty()
+                        artifacts.add(Artifact(groupId, reader.localName, latestVersion(versions)))
+                    }
+                }
+                XMLStreamConstants.END_ELEMENT -> depth--
+            }
+        }
+        return artifacts
+    }
+
+    private fun latestVersion(versions: List<String>): String {
+        return versions.lastOrNull { !PRE_RELEASE.containsMatchIn(it) }
+                ?: versions.lastOrNull()
+                ?: UNKNOWN_VERSION
+    }
+
+    companion object {
+        const val MASTER_INDEX = "master-index.xml"
+        const val GROUP_INDEX = "group-index.xml"
+        const val UNKNOWN_VERSION = "+"
+
+        private const val VERSIONS_ATTRIBUTE = "versions"
+        private val PRE_RELEASE = "(alpha|beta|rc|dev|eap|preview)".toRegex(RegexOption.IGNORE_CASE)
+    }
+}
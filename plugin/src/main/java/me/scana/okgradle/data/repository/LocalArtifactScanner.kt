@@ -0,0 +1,185 @@
+package me.scana.okgradle.data.repository
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Finds artifacts downloaded by Gradle (`files-2.1` layout: `group/artifact/version/sha1/file`) and Maven
+ * (`group/path/artifact/version/artifact-version.pom`).
+ *
+ * Directory listings are remembered together with the directory's modification time. A scan only lists
+ * directories which changed since they were last listed and merely checks the modification time of the rest.
+ * Listings are persisted in [stateFile], so the first scan after a restart is just as cheap.
+ *
+ * Not thread-safe, scans have to run one at a time.
+ */
+class LocalArtifactScanner(
+        private val gradleCache: File?,
+        private val mavenRepository: File?,
+        private val stateFile: File?,
+        private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private var listings: Map<String, Listing>? = null
+    private var visited = HashMap<String, Listing>()
+
+    private val listedDirectories = AtomicLong()
+    private val reusedListings = AtomicLong()
+
+    fun scan(): List<Artifact> {
+        val previous = listings ?: load()
+        visited = HashMap(previous.size)
+        val artifacts = mutableListOf<Artifact>()
+        try {
+            gradleCache?.let { scanGradleCache(it, previous, artifacts) }
+            mavenRepository?.let { scanMavenRepository(it, emptyList(), previous, artifacts) }
+        } finally {
+            listings = visited
+        }
+        save(visited)
+        return artifacts
+    }
+
+    fun stats() = ScanStats(listedDirectories.get(), reusedListings.get())
+
+    private fun scanGradleCache(root: File, previous: Map<String, Listing>, artifacts: MutableList<Artifact>) {
+        for (groupId in list(root, previous).directories) {
+            val group = File(root, groupId)
+            for (name in list(group, previous).directories) {
+                val versions = list(File(group, name), previous).directories
+                newest(versions)?.let { artifacts.add(Artifact(groupId, name, it)) }
+            }
+        }
+    }
+
+    /**
+     * A directory is an artifact when some of its subdirectories hold `<artifact>-<version>` files,
+     * everything above it forms the group.
+     */
+    private fun scanMavenRepository(directory: File, path: List<String>, previous: Map<String, Listing>, artifacts: MutableList<Artifact>) {
+        val listing = list(directory, previous)
+        val name = directory.name
+        val versions = if (path.size < 2) emptyList() else listing.directories.filter { version ->
+            list(File(directory, version), previous).files.any { it.startsWith("$name-$version") }
+        }
+        val newest = newest(versions)
+        if (newest != null) {
+            artifacts.add(Artifact(path.dropLast(1).joinToString("."), name, newest))
+            return
+        }
+        for (child in listing.directories) {
+            scanMavenRepository(File(directory, child), path + child, previous, artifacts)
+        }
+    }
+
+    /**
+     * Lists every directory at most once per scan and reuses the previous listing of [directory] unless
+     * it was modified since. Listings taken within
+     * [MODIFICATION_TIME_GRANULARITY_IN_MILLIS] of the modification are not trusted, as the file system
+     * might not have recorded a later change in the same tick.
+     */
+    private fun list(directory: File, previous: Map<String, Listing>): Listing {
+        val path = directory.path
+        visited[path]?.let { return it }
+        val lastModified = directory.lastModified()
+        val cached = previous[path]
+        val listing = if (cached != null && cached.lastModified == lastModified && cached.listedAt - lastModified > MODIFICATION_TIME_GRANULARITY_IN_MILLIS) {
+            reusedListings.incrementAndGet()
+            cached
+        } else {
+            listedDirectories.incrementAndGet()
+            read(directory, lastModified)
+        }
+        visited[path] = listing
+        return listing
+    }
+
+    private fun read(directory: File, lastModified: Long): Listing {
+        val directories = mutableListOf<String>()
+        val files = mutableListOf<String>()
+        directory.listFiles()?.forEach {
+            when {
+                it.isDirectory -> directories.add(it.name)
+                it.name.endsWith(POM_SUFFIX) || it.name.endsWith(JAR_SUFFIX) || it.name.endsWith(AAR_SUFFIX) -> files.add(it.name)
+            }
+        }
+        return Listing(lastModified, clock(), directories, files)
+    }
+
+    private fun newest(versions: List<String>): String? = versions.maxWith(VersionComparator)
+
+    private fun load(): Map<String, Listing> {
+        val file = stateFile?.takeIf { it.exists() } ?: return emptyMap()
+        return try {
+            DataInputStream(file.inputStream().buffered()).use { input ->
+                if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                    return emptyMap()
+                }
+                val result = HashMap<String, Listing>()
+                repeat(input.readInt()) {
+                    val path = input.readUTF()
+                    val lastModified = input.readLong()
+                    val listedAt = input.readLong()
+                    val directories = List(input.readInt()) { input.readUTF() }
+                    val files = List(input.readInt()) { input.readUTF() }
+                    result[path] = Listing(lastModified, listedAt, directories, files)
+                }
+                result
+            }
+        } catch (exception: IOException) {
+            emptyMap()
+        }
+    }
+
+    private fun save(listings: Map<String, Listing>) {
+        val file = stateFile ?: return
+        try {
+            file.parentFile?.mkdirs()
+            val temporary = File(file.path + ".tmp")
+            DataOutputStream(temporary.outputStream().buffered()).use { output ->
+                output.writeInt(MAGIC)
+                output.writeInt(FORMAT_VERSION)
+                output.writeInt(listings.size)
+                listings.forEach { (path, listing) ->
+                    output.writeUTF(path)
+                    output.writeLong(listing.lastModified)
+                    output.writeLong(listing.listedAt)
+                    output.writeInt(listing.directories.size)
+                    listing.directories.forEach { output.writeUTF(it) }
+                    output.writeInt(listing.files.size)
+                    listing.files.forEach { output.writeUTF(it) }
+                }
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        } catch (exception: IOException) {
+            // the next scan lists everything again
+        }
+    }
+
+    private class Listing(val lastModified: Long, val listedAt: Long, val directories: List<String>, val files: List<String>)
+
+    /**
+     * @param listedDirectories directories read from disk
+     * @param reusedListings directories whose previous listing was still valid
+     */
+    data class ScanStats(val listedDirectories: Long, val reusedListings: Long)
+
+    companion object {
+        private const val MAGIC = 0x4F4B4C43
+        private const val FORMAT_VERSION = 1
+        private const val MODIFICATION_TIME_GRANULARITY_IN_MILLIS = 2_000L
+
+        private const val POM_SUFFIX = ".pom"
+        private const val JAR_SUFFIX = ".jar"
+        private const val AAR_SUFFIX = ".aar"
+
+        fun gradleCache(gradleUserHome: File) = File(gradleUserHome, "caches/modules-2/files-2.1")
+
+        fun mavenRepository(userHome: File) = File(userHome, ".m2/repository")
+    }
+}
@@ -8,21 +8,20 @@ import okhttp3.Request
 
 class MavenRepository(private val networkClient: NetworkClient, private val gson: Gson) : ArtifactRepository {
 
+    private val responseReader = MavenResponseReader(gson)
+
     companion object {
         val MAVEN_URL: HttpUrl = "http://search.maven.org/solrsearch/select".toHttpUrl()
     }
 
     override fun search(query: String): Single<SearchResult> {
-        return Single.create {
-            val result = when {
-                query.isEmpty() -> SearchResult.Success()
-                else -> artifactIdForName(query)
-            }
-            it.onSuccess(result)
+        return when {
+            query.isEmpty() -> Single.just(SearchResult.Success())
+            else -> artifactIdForName(query)
         }
     }
 
-    private fun artifactIdForName(name: String): SearchResult {
+    private fun artifactIdForName(name: String): Single<SearchResult> {
         val url = MAVEN_URL.newBuilder()
                 .addQueryParameter("q", name)
                 .build()
@@ -31,29 +30,14 @@ class MavenRepository(private val networkClient: NetworkClient, private val gson
                 .url(url)
                 .build()
 
-        val response = networkClient.execute(request) {
-            val mavenResult = gson.fromJson(this.charStream(), MavenResult::class.java)
-            val suggestion = extractSuggestion(mavenResult.spellcheck)
-            val artifacts = extractArtifacts(mavenResult.response)
-            return@execute Pair(artifacts, suggestion)
-        }
-        return when(response) {
-            is NetworkResult.Success -> SearchResult.Success(response.data.first, response.data.second)
-            is NetworkResult.Failure -> SearchResult.Error(response.throwable)
-        }
-    }
-
-    private fun extractArtifacts(response: Response): List<Artifact> {
-        if (response.docs.isEmpty()) {
-            return emptyList()
+        return networkClient.call(request) {
+            responseReader.read(gson.newJsonReader(this.charStream()))
+        }.map { response ->
+            when (response) {
+                is NetworkResult.Success -> response.data
+                is NetworkResult.Failure -> SearchResult.Error(response.throwable)
+            }
         }
-        return response.docs.map { Artifact(it.g, it.a, it.latestVersion) }
     }
 
-    private fun extractSuggestion(spellcheck: Spellcheck): String? {
-        if (spellcheck.suggestions.isEmpty()) {
-            return null
-        }
-        return spellcheck.suggestions[0].suggestion[0]
-    }
 }
\ No newline at end of file
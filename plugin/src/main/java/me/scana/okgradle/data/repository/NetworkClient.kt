@@ -1,26 +1,169 @@
 package me.scana.okgradle.data.repository
 
+import io.reactivex.Scheduler
+import io.reactivex.Single
+import me.scana.okgradle.data.LatencyTracker
+import me.scana.okgradle.data.SearchMetrics
+import me.scana.okgradle.data.SearchSchedulers
+import me.scana.okgradle.util.PluginEvents
+import okhttp3.Call
 import okhttp3.OkHttpClient
 import okhttp3.Request
 import okhttp3.ResponseBody
 import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
 
-class NetworkClient(private val okHttpClient: OkHttpClient) {
+/**
+ * @param policy enables hedging of GET requests, see [RepositoryPolicy.hedgePercentile]
+ * @param metrics receives network and parse times of every call
+ */
+class NetworkClient(
+        private val okHttpClient: OkHttpClient,
+        private val policy: RepositoryPolicy? = null,
+        private val ioScheduler: Scheduler = SearchSchedulers.DEFAULT.io,
+        private val timerScheduler: Scheduler = SearchSchedulers.DEFAULT.cpu,
+        private val metrics: SearchMetrics.RepositoryMetrics? = null
+) {
+
+    private val flights = ConcurrentHashMap<String, Single<*>>()
+    private val latency = LatencyTracker()
+
+    private val completed = AtomicLong()
+    private val cancelled = AtomicLong()
+    private val coalesced = AtomicLong()
+    private val hedged = AtomicLong()
+
+    /**
+     * Executes [request] when subscribed to. Disposing the subscription cancels the underlying [Call],
+     * which frees its connection and unblocks the thread waiting for the response.
+     *
+     * Concurrent GETs of the same URL with the same [parse] function share a single call and its parsed
+     * result. The call is cancelled only when all of them are disposed.
+     */
+    fun <T> call(request: Request, parse: ResponseBody.() -> T): Single<NetworkResult<T>> {
+        if (request.method != "GET") {
+            return attempt(request, parse)
+        }
+        val key = "${parse.javaClass.name} ${request.url}"
+        return Single.defer {
+            @Suppress("UNCHECKED_CAST")
+            val existing = flights[key] as Single<NetworkResult<T>>?
+            if (existing != null) {
+                coalesced.incrementAndGet()
+                return@defer existing
+            }
+            val flight = flight(key, request, parse)
+            @Suppress("UNCHECKED_CAST")
+            val raced = flights.putIfAbsent(key, flight) as Single<NetworkResult<T>>?
+            if (raced != null) {
+                coalesced.incrementAndGet()
+                raced
+            } else {
+                flight
+            }
+        }
+    }
 
     fun <T> execute(request: Request, parse: ResponseBody.() -> T): NetworkResult<T> {
+        val result = execute(okHttpClient.newCall(request), parse)
+        completed.incrementAndGet()
+        return result
+    }
+
+    fun stats() = RequestStats(completed.get(), cancelled.get(), coalesced.get(), hedged.get())
+
+    /**
+     * Runs on its own IO thread, so the caller that started it can go away without interrupting the others.
+     */
+    private fun <T> flight(key: String, request: Request, parse: ResponseBody.() -> T): Single<NetworkResult<T>> {
+        lateinit var flight: Single<NetworkResult<T>>
+        flight = hedged(request, parse)
+                .doOnEvent { _, _ -> flights.remove(key, flight) }
+                .doOnDispose { flights.remove(key, flight) }
+                .toObservable()
+                .publish()
+                .refCount()
+                .singleOrError()
+        return flight
+    }
+
+    /**
+     * Once a GET takes longer than usual, sends it again and takes whichever response comes first.
+     */
+    private fun <T> hedged(request: Request, parse: ResponseBody.() -> T): Single<NetworkResult<T>> {
+        val hedgeDelay = hedgeDelay() ?: return attempt(request, parse).subscribeOn(ioScheduler)
+        val primary = attempt(request, parse).subscribeOn(ioScheduler)
+        val hedge = Single.timer(hedgeDelay, TimeUnit.MILLISECONDS, timerScheduler)
+                .flatMap {
+                    hedged.incrementAndGet()
+                    attempt(request, parse).subscribeOn(ioScheduler)
+                }
+        return Single.ambArray(primary, hedge)
+    }
+
+    private fun hedgeDelay(): Long? {
+        if (policy == null || latency.sampleCount < policy.minSamplesForHedging) {
+            return null
+        }
+        return latency.percentile(policy.hedgePercentile)
+    }
+
+    private fun <T> attempt(request: Request, parse: ResponseBody.() -> T): Single<NetworkResult<T>> {
+        return Single.create { emitter ->
+            val call = okHttpClient.newCall(request)
+            val finished = AtomicBoolean()
+            emitter.setCancellable {
+                if (finished.compareAndSet(false, true)) {
+                    cancelled.incrementAndGet()
+                    call.cancel()
+                }
+            }
+            val start = timerScheduler.now(TimeUnit.MILLISECONDS)
+            val result = execute(call, parse)
+            if (finished.compareAndSet(false, true)) {
+                completed.incrementAndGet()
+                if (result is NetworkResult.Success) {
+                    latency.record(timerScheduler.now(TimeUnit.MILLISECONDS) - start)
+                }
+                emitter.onSuccess(result)
+            }
+        }
+    }
+
+    private fun <T> execute(call: Call, parse: ResponseBody.() -> T): NetworkResult<T> {
+        val request = call.request()
+        val span = PluginEvents.networkCall(request.method, request.url.toString())
+        var status = 0
         try {
-            val response = okHttpClient.newCall(request).execute()
+            val start = System.nanoTime()
+            val response = call.execute()
+            val received = System.nanoTime()
+            status = response.code
+            metrics?.network?.record(received - start, TimeUnit.NANOSECONDS)
             if (!response.isSuccessful) {
+                response.close()
                 return NetworkResult.Failure(HttpException(response.code, response.message))
             }
             return try {
                 val result = response.body!!.use(parse)
+                metrics?.parse?.record(System.nanoTime() - received, TimeUnit.NANOSECONDS)
                 NetworkResult.Success(result)
             } catch (exception: Exception) {
                 NetworkResult.Failure(ResponseParseException(exception))
             }
         } catch (exception: IOException) {
             return NetworkResult.Failure(exception)
+        } finally {
+            span.end(status)
         }
     }
+
+    /**
+     * @param coalesced calls which joined an identical call already in flight
+     * @param hedged second attempts sent for slow calls
+     */
+    data class RequestStats(val completed: Long, val cancelled: Long, val coalesced: Long = 0, val hedged: Long = 0)
 }
@@ -0,0 +1,103 @@
+package me.scana.okgradle.data.repository
+
+import com.intellij.openapi.diagnostic.Logger
+import io.reactivex.Scheduler
+import io.reactivex.Single
+import me.scana.okgradle.data.SearchSchedulers
+import java.io.File
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.math.max
+
+/**
+ * Searches artifacts already present in the local Gradle and Maven caches, so results show up without
+ * waiting for the network and the plugin keeps working on machines without internet access.
+ *
+ * Searches are answered from a [ArtifactIndex] built from the last scan and persisted as [indexFile]. The index is
+ * small enough to be kept on the heap, which also lets a refresh replace the file while it is in use.
+ * Once that index is older than [REFRESH_INTERVAL_IN_MILLIS], [scanner] refreshes it in the background. A scan walks
+ * every directory of the caches, so a failed one isn't retried before the interval has passed again either.
+ */
+class OfflineArtifactRepository(
+        private val scanner: LocalArtifactScanner,
+        private val indexFile: File?,
+        private val scheduler: Scheduler = SearchSchedulers.DEFAULT.io,
+        private val clock: () -> Long = System::currentTimeMillis
+) : ArtifactRepository {
+
+    @Volatile
+    private var current: ArtifactIndex? = null
+    private val isRefreshing = AtomicBoolean()
+    @Volatile
+    private var lastRefreshAttempt = 0L
+
+    override fun search(query: String): Single<SearchResult> {
+        return Single.fromCallable {
+            SearchResult.Success(index().find(query), isExhaustive = true)
+        }
+    }
+
+    override fun isAvailableLocally(query: String) = true
+
+    fun index(): ArtifactIndex {
+        val index = current ?: load()
+        if (clock() - max(index.createdAt, lastRefreshAttempt) > REFRESH_INTERVAL_IN_MILLIS) {
+            refreshInBackground()
+        }
+        return index
+    }
+
+    @Synchronized
+    private fun load(): ArtifactIndex {
+        current?.let { return it }
+        val index = try {
+            indexFile?.takeIf { it.exists() }?.let { ArtifactIndex.read(ByteBuffer.wrap(it.readBytes())) }
+        } catch (exception: IOException) {
+            null
+        } catch (exception: IllegalArgumentException) {
+            null
+        } ?: ArtifactIndex.EMPTY
+        current = index
+        return index
+    }
+
+    private fun refreshInBackground() {
+        if (!isRefreshing.compareAndSet(false, true)) {
+            return
+        }
+        lastRefreshAttempt = clock()
+        scheduler.scheduleDirect {
+            try {
+                current = refresh()
+            } catch (exception: Exception) {
+                // keep serving the current index until the next refresh
+                logger.warn("Failed to scan the local artifact caches", exception)
+            } finally {
+                isRefreshing.set(false)
+            }
+        }
+    }
+
+    private fun refresh(): ArtifactIndex {
+        val bytes = ArtifactIndex.write(scanner.scan(), clock())
+        indexFile?.let { store(it, bytes) }
+        return ArtifactIndex.read(ByteBuffer.wrap(bytes))
+    }
+
+    private fun store(file: File, bytes: ByteArray) {
+        file.parentFile?.mkdirs()
+        val temporary = File(file.path + ".tmp")
+        temporary.writeBytes(bytes)
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+    }
+
+    companion object {
+        private val logger: Logger = Logger.getInstance(OfflineArtifactRepository::class.java)
+
+        private val REFRESH_INTERVAL_IN_MILLIS = TimeUnit.HOURS.toMillis(1)
+    }
+}
@@ -0,0 +1,10 @@
+package me.scana.okgradle.data.repository
+
+enum class RepositoryHealth {
+    /** Answering normally. */
+    HEALTHY,
+    /** Recent requests failed, or it's being probed again after a cool-down. */
+    DEGRADED,
+    /** Failing repeatedly, skipped until the cool-down ends. */
+    UNAVAILABLE
+}
@@ -0,0 +1,33 @@
+package me.scana.okgradle.data.repository
+
+import okhttp3.OkHttpClient
+import java.util.concurrent.TimeUnit
+
+/**
+ * How long we are willing to wait for a repository and how we react when it misbehaves.
+ *
+ * @param failureThreshold consecutive failures after which the repository is skipped for [coolDownInMillis]
+ * @param hedgePercentile a second, identical GET is sent once the first one is slower than this percentile
+ * of recent response times; hedging starts after [minSamplesForHedging] responses
+ */
+data class RepositoryPolicy(
+        val connectTimeoutInMillis: Long = 5_000,
+        val readTimeoutInMillis: Long = 10_000,
+        val callTimeoutInMillis: Long = 15_000,
+        val failureThreshold: Int = 3,
+        val coolDownInMillis: Long = 60_000,
+        val hedgePercentile: Int = 95,
+        val minSamplesForHedging: Int = 8
+) {
+
+    /**
+     * A client with this policy's deadlines. It shares connection pool, dispatcher and cache with [client].
+     */
+    fun applyTo(client: OkHttpClient): OkHttpClient {
+        return client.newBuilder()
+                .connectTimeout(connectTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutInMillis, TimeUnit.MILLISECONDS)
+                .build()
+    }
+}
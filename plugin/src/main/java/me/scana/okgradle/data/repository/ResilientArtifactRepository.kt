@@ -0,0 +1,96 @@
+package me.scana.okgradle.data.repository
+
+import io.reactivex.Scheduler
+import io.reactivex.Single
+import me.scana.okgradle.data.SearchSchedulers
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Keeps a slow or failing [delegate] from holding up the search.
+ *
+ * Every remote search gets a deadline. After [RepositoryPolicy.failureThreshold] consecutive failures
+ * the repository is skipped (it answers with an empty result) for a cool-down, after which a single
+ * request probes whether it's back. Slow requests are hedged below, by [NetworkClient].
+ */
+class ResilientArtifactRepository(
+        private val delegate: ArtifactRepository,
+        private val policy: RepositoryPolicy = RepositoryPolicy(),
+        private val timerScheduler: Scheduler = SearchSchedulers.DEFAULT.cpu
+) : ArtifactRepository {
+
+    private val skippedRequests = AtomicLong()
+
+    private var consecutiveFailures = 0
+    private var openUntil = NOT_OPEN
+    private var isProbing = false
+
+    override fun search(query: String): Single<SearchResult> {
+        if (query.isEmpty() || delegate.isAvailableLocally(query)) {
+            return delegate.search(query)
+        }
+        return Single.defer {
+            if (!tryAcquire()) {
+                skippedRequests.incrementAndGet()
+                return@defer Single.just<SearchResult>(SearchResult.Success())
+            }
+            delegate.search(query)
+                    .timeout(policy.callTimeoutInMillis, TimeUnit.MILLISECONDS, timerScheduler)
+                    .doOnSuccess { if (it is SearchResult.Error) onFailure() else onSuccess() }
+                    .doOnError { onFailure() }
+                    .doOnDispose { onAbandoned() }
+        }
+    }
+
+    override fun isAvailableLocally(query: String) = delegate.isAvailableLocally(query)
+
+    @Synchronized
+    override fun health(): RepositoryHealth {
+        return when {
+            openUntil != NOT_OPEN && now() < openUntil -> RepositoryHealth.UNAVAILABLE
+            openUntil != NOT_OPEN || consecutiveFailures > 0 -> RepositoryHealth.DEGRADED
+            else -> RepositoryHealth.HEALTHY
+        }
+    }
+
+    fun skippedRequests() = skippedRequests.get()
+
+    @Synchronized
+    private fun tryAcquire(): Boolean {
+        return when {
+            openUntil == NOT_OPEN -> true
+            now() < openUntil || isProbing -> false
+            else -> {
+                isProbing = true
+                true
+            }
+        }
+    }
+
+    @Synchronized
+    private fun onSuccess() {
+        consecutiveFailures = 0
+        openUntil = NOT_OPEN
+        isProbing = false
+    }
+
+    @Synchronized
+    private fun onFailure() {
+        consecutiveFailures++
+        if (isProbing || consecutiveFailures >= policy.failureThreshold) {
+            openUntil = now() + policy.coolDownInMillis
+        }
+        isProbing = false
+    }
+
+    @Synchronized
+    private fun onAbandoned() {
+        isProbing = false
+    }
+
+    private fun now() = timerScheduler.now(TimeUnit.MILLISECONDS)
+
+    companion object {
+        private const val NOT_OPEN = 0L
+    }
+}
@@ -0,0 +1,43 @@
+package me.scana.okgradle.data.repository
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.util.concurrent.TimeUnit
+
+/**
+ * Network interceptor which makes responses of selected hosts cacheable for a given time,
+ * regardless of what the servers send. Validators (`ETag`, `Last-Modified`) are left untouched,
+ * so once the time runs out OkHttp's cache revalidates instead of downloading everything again.
+ */
+class ResponseCacheInterceptor(
+        private val timeToLiveInSeconds: Map<String, Long> = DEFAULT_TIME_TO_LIVE
+) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+        val timeToLive = timeToLiveInSeconds[request.url.host]
+        // The headers of a 304 replace those of the cached response, so they need the time to live as well.
+        val isCacheable = response.isSuccessful || response.code == HTTP_NOT_MODIFIED
+        if (timeToLive == null || request.method != "GET" || !isCacheable) {
+            return response
+        }
+        return response.newBuilder()
+                .removeHeader(PRAGMA)
+                .removeHeader(EXPIRES)
+                .header(CACHE_CONTROL, "public, max-age=$timeToLive")
+                .build()
+    }
+
+    companion object {
+        private const val CACHE_CONTROL = "Cache-Control"
+        private const val PRAGMA = "Pragma"
+        private const val EXPIRES = "Expires"
+        private const val HTTP_NOT_MODIFIED = 304
+
+        val DEFAULT_TIME_TO_LIVE = mapOf(
+                MavenRepository.MAVEN_URL.host to TimeUnit.HOURS.toSeconds(1),
+                GoogleRepository.GOOGLE_MAVEN_URL.host to TimeUnit.HOURS.toSeconds(6)
+        )
+    }
+}
@@ -0,0 +1,172 @@
+package me.scana.okgradle.data.repository
+
+import com.google.gson.Gson
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+
+/**
+ * Streaming readers for repository responses. They build [Artifact]s straight from the tokens
+ * and skip every field we don't display, instead of materializing whole response models first.
+ *
+ * @param gson reads the small `spellcheck` object, with [SpellcheckDeserializer] registered for [Spellcheck]
+ */
+class MavenResponseReader(private val gson: Gson) {
+
+    fun read(reader: JsonReader): SearchResult.Success {
+        val artifacts = mutableListOf<Artifact>()
+        val signals = mutableMapOf<Artifact, ArtifactSignals>()
+        var suggestion: String? = null
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "response" -> readResponse(reader, artifacts, signals)
+                "spellcheck" -> suggestion = readSpellcheck(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        return SearchResult.Success(artifacts, suggestion, signals = signals)
+    }
+
+    private fun readResponse(reader: JsonReader, artifacts: MutableList<Artifact>, signals: MutableMap<Artifact, ArtifactSignals>) {
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "docs" -> {
+                    reader.beginArray()
+                    while (reader.hasNext()) {
+                        readDoc(reader, artifacts, signals)
+                    }
+                    reader.endArray()
+                }
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+    }
+
+    private fun readDoc(reader: JsonReader, artifacts: MutableList<Artifact>, signals: MutableMap<Artifact, ArtifactSignals>) {
+        var groupId: String? = null
+        var name: String? = null
+        var version: String? = null
+        var versionCount = 0L
+        var timestamp = 0L
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "g" -> groupId = reader.nextStringOrNull()
+                "a" -> name = reader.nextStringOrNull()
+                "latestVersion" -> version = reader.nextStringOrNull()
+                "versionCount" -> versionCount = reader.nextLongOrZero()
+                "timestamp" -> timestamp = reader.nextLongOrZero()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        if (groupId == null || name == null || version == null) {
+            return
+        }
+        val artifact = Artifact(groupId, name, version)
+        artifacts.add(artifact)
+        if (versionCount > 0 || timestamp > 0) {
+            signals[artifact] = ArtifactSignals(versionCount.toInt(), timestamp)
+        }
+    }
+
+    /**
+     * Suggestions come as a flat list of misspelled words, each followed by an object with alternatives.
+     * We only need the first alternative of the first word.
+     */
+    private fun readSpellcheck(reader: JsonReader): String? {
+        val spellcheck = gson.fromJson<Spellcheck>(reader, Spellcheck::class.java)
+        return spellcheck?.suggestions?.firstOrNull()?.suggestion?.firstOrNull()
+    }
+}
+
+class JitPackResponseReader {
+
+    fun read(reader: JsonReader): List<Artifact> {
+        val artifacts = mutableListOf<Artifact>()
+        reader.beginObject()
+        while (reader.hasNext()) {
+            val coordinates = reader.nextName()
+            val version = reader.readFirstString()
+            if (version != null) {
+                artifactOf(coordinates, version)?.let { artifacts.add(it) }
+            }
+        }
+        reader.endObject()
+        return artifacts
+    }
+}
+
+class BintrayResponseReader {
+
+    fun read(reader: JsonReader): List<Artifact> = reader.readArray { readPackage(it) }
+
+    private fun readPackage(reader: JsonReader): Artifact? {
+        var coordinates: String? = null
+        var version: String? = null
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "name" -> coordinates = reader.nextStringOrNull()
+                "versions" -> version = reader.readFirstString()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+        if (coordinates == null || version == null) {
+            return null
+        }
+        return artifactOf(coordinates, version)
+    }
+}
+
+private fun artifactOf(coordinates: String, version: String): Artifact? {
+    val separator = coordinates.indexOf(':')
+    if (separator < 0) {
+        return null
+    }
+    return Artifact(coordinates.substring(0, separator), coordinates.substring(separator + 1), version)
+}
+
+private fun JsonReader.nextStringOrNull(): String? {
+    if (peek() == JsonToken.NULL) {
+        nextNull()
+        return null
+    }
+    return nextString()
+}
+
+private fun JsonReader.nextLongOrZero(): Long {
+    if (peek() != JsonToken.NUMBER) {
+        skipValue()
+        return 0
+    }
+    return nextLong()
+}
+
+private fun JsonReader.readFirstString(): String? {
+    if (peek() != JsonToken.BEGIN_ARRAY) {
+        skipValue()
+        return null
+    }
+    beginArray()
+    val first = if (hasNext()) nextStringOrNull() else null
+    while (hasNext()) {
+        skipValue()
+    }
+    endArray()
+    return first
+}
+
+private fun <T> JsonReader.readArray(readItem: (JsonReader) -> T?): List<T> {
+    val items = mutableListOf<T>()
+    beginArray()
+    while (hasNext()) {
+        readItem(this)?.let { items.add(it) }
+    }
+    endArray()
+    return items
+}
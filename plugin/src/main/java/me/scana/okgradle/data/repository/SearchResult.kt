@@ -1,6 +1,21 @@
 package me.scana.okgradle.data.repository
 
 sealed class SearchResult {
-    class Success(val artifacts: List<Artifact> = emptyList(), val suggestion: String? = null) : SearchResult()
+    /**
+     * @param isExhaustive true when [artifacts] holds every artifact whose `groupId:name` contains the query,
+     * which lets results of longer queries be computed from it locally.
+     * @param signals popularity hints for those of [artifacts] the backend knows something about
+     * @param source title of the repository the result comes from, set by the search use case
+     */
+    class Success(
+            val artifacts: List<Artifact> = emptyList(),
+            val suggestion: String? = null,
+            val isExhaustive: Boolean = false,
+            val signals: Map<Artifact, ArtifactSignals> = emptyMap(),
+            val source: String? = null
+    ) : SearchResult() {
+        fun withSource(source: String) = Success(artifacts, suggestion, isExhaustive, signals, source)
+    }
+    class VersionUpdate(val artifact: Artifact) : SearchResult()
     class Error(val throwable: Throwable) : SearchResult()
 }
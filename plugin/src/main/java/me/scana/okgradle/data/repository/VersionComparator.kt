@@ -0,0 +1,38 @@
+package me.scana.okgradle.data.repository
+
+import kotlin.math.max
+
+/**
+ * Orders versions by their numeric parts, a qualifier (`-alpha01`, `-SNAPSHOT`) sorts below the plain release.
+ */
+object VersionComparator : Comparator<String> {
+
+    override fun compare(first: String, second: String): Int {
+        val left = first.split('.', '-')
+        val right = second.split('.', '-')
+        for (index in 0 until max(left.size, right.size)) {
+            val a = left.getOrNull(index)
+            val b = right.getOrNull(index)
+            val result = when {
+                a == null -> if (b!!.toLongOrNull() != null) -1 else 1
+                b == null -> if (a.toLongOrNull() != null) 1 else -1
+                else -> compareParts(a, b)
+            }
+            if (result != 0) {
+                return result
+            }
+        }
+        return 0
+    }
+
+    private fun compareParts(first: String, second: String): Int {
+        val a = first.toLongOrNull()
+        val b = second.toLongOrNull()
+        return when {
+            a != null && b != null -> a.compareTo(b)
+            a != null -> 1
+            b != null -> -1
+            else -> first.compareTo(second, ignoreCase = true)
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package me.scana.okgradle.data.repository
+
+import io.reactivex.Observable
+
+interface VersionResolver {
+    fun resolveVersions(artifacts: List<Artifact>): Observable<Artifact>
+}
@@ -25,6 +25,7 @@ import me.scana.okgradle.internal.dsl.api.GradleBuildModel;
 import me.scana.okgradle.internal.dsl.api.GradleSettingsModel;
 import me.scana.okgradle.internal.dsl.api.ProjectBuildModel;
 import me.scana.okgradle.internal.dsl.parser.BuildModelContext;
+import me.scana.okgradle.internal.dsl.parser.BuildModelContextCache;
 import me.scana.okgradle.internal.dsl.parser.files.GradleBuildFile;
 import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile;
 import me.scana.okgradle.internal.dsl.parser.files.GradleSettingsFile;
@@ -44,8 +45,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ProjectBuildModelImpl implements ProjectBuildModel {
-  @NotNull private final BuildModelContext myBuildModelContext;
-  @Nullable private final GradleBuildFile myProjectBuildFile;
+  // Both are cleared once the changes were applied and the context was handed over to the next model.
+  @Nullable private BuildModelContext myBuildModelContext;
+  @Nullable private GradleBuildFile myProjectBuildFile;
 
   @NotNull
   public static ProjectBuildModel get(@NotNull Project project) {
@@ -68,25 +70,45 @@ public class ProjectBuildModelImpl implements ProjectBuildModel {
    * @param file the file contain the projects main build.gradle
    */
   private ProjectBuildModelImpl(@NotNull Project project, @Nullable VirtualFile file) {
-    myBuildModelContext = BuildModelContext.create(project);
+    // Start from the files parsed by the last model which applied its changes, if nobody else is using them.
+    BuildModelContext cachedContext = file != null ? BuildModelContextCache.getInstance(project).take(file) : null;
+    if (cachedContext != null && cachedContext.getRootProjectFile() instanceof GradleBuildFile) {
+      myBuildModelContext = cachedContext;
+      myProjectBuildFile = (GradleBuildFile)cachedContext.getRootProjectFile();
+      return;
+    }
+
+    BuildModelContext context = BuildModelContext.create(project);
+    myBuildModelContext = context;
 
     // First parse the main project build file.
-    myProjectBuildFile = file != null ? new GradleBuildFile(file, project, project.getName(), myBuildModelContext) : null;
-    if (myProjectBuildFile != null) {
-      myBuildModelContext.setRootProjectFile(myProjectBuildFile);
+    GradleBuildFile projectBuildFile = file != null ? new GradleBuildFile(file, project, project.getName(), context) : null;
+    myProjectBuildFile = projectBuildFile;
+    if (projectBuildFile != null) {
+      context.setRootProjectFile(projectBuildFile);
       ApplicationManager.getApplication().runReadAction(() -> {
-        populateWithParentModuleSubProjectsProperties(myProjectBuildFile, myBuildModelContext);
-        populateSiblingDslFileWithGradlePropertiesFile(myProjectBuildFile, myBuildModelContext);
-        myProjectBuildFile.parse();
+        populateWithParentModuleSubProjectsProperties(projectBuildFile, context);
+        populateSiblingDslFileWithGradlePropertiesFile(projectBuildFile, context);
+        projectBuildFile.parse();
       });
-      myBuildModelContext.putBuildFile(file.getUrl(), myProjectBuildFile);
+      context.putBuildFile(file.getUrl(), projectBuildFile);
+    }
+  }
+
+  @NotNull
+  private BuildModelContext getContext() {
+    BuildModelContext context = myBuildModelContext;
+    if (context == null) {
+      throw new IllegalStateException("The changes of this model were applied, use a new model for any further changes");
     }
+    return context;
   }
 
 
   @Override
   @Nullable
   public GradleBuildModel getProjectBuildModel() {
+    getContext();
     return myProjectBuildFile == null ? null : new me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl(myProjectBuildFile);
   }
 
@@ -115,17 +137,18 @@ public class ProjectBuildModelImpl implements ProjectBuildModel {
   @Override
   @NotNull
   public GradleBuildModel getModuleBuildModel(@NotNull VirtualFile file) {
-    GradleBuildFile dslFile = myBuildModelContext.getOrCreateBuildFile(file, false);
+    GradleBuildFile dslFile = getContext().getOrCreateBuildFile(file, false);
     return new me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl(dslFile);
   }
 
   @Override
   @Nullable
   public GradleSettingsModel getProjectSettingsModel() {
+    BuildModelContext context = getContext();
     VirtualFile virtualFile = null;
     // If we don't have a root build file, guess the location of the settings file from the project.
     if (myProjectBuildFile == null) {
-      VirtualFile projectDir = ProjectUtil.guessProjectDir(myBuildModelContext.getProject());
+      VirtualFile projectDir = ProjectUtil.guessProjectDir(context.getProject());
       if (projectDir != null) {
         File ioFile = VfsUtilCore.virtualToIoFile(projectDir);
         virtualFile = getGradleSettingsFile(ioFile);
@@ -138,17 +161,28 @@ public class ProjectBuildModelImpl implements ProjectBuildModel {
       return null;
     }
 
-    GradleSettingsFile settingsFile = myBuildModelContext.getOrCreateSettingsFile(virtualFile);
+    GradleSettingsFile settingsFile = context.getOrCreateSettingsFile(virtualFile);
     return new GradleSettingsModelImpl(settingsFile);
   }
 
+  /**
+   * Applies and saves the changes, then hands the parsed files over to the next model created for this project. This model and the
+   * models it created must not be used afterwards, any further call fails with an {@link IllegalStateException}.
+   */
   @Override
   public void applyChanges() {
+    BuildModelContext context = getContext();
     runOverProjectTree(file -> {
       file.applyChanges();
       file.saveAllChanges();
     });
 
+    GradleBuildFile projectBuildFile = myProjectBuildFile;
+    myBuildModelContext = null;
+    myProjectBuildFile = null;
+    if (projectBuildFile != null) {
+      BuildModelContextCache.getInstance(context.getProject()).offer(projectBuildFile.getFile(), context);
+    }
   }
 
   @Override
@@ -158,13 +192,14 @@ public class ProjectBuildModelImpl implements ProjectBuildModel {
 
   @Override
   public void reparse() {
-    myBuildModelContext.reset();
+    getContext().reset();
     runOverProjectTree(GradleDslFile::reparse);
   }
 
   @NotNull
   @Override
   public List<GradleBuildModel> getAllIncludedBuildModels() {
+    getContext();
     List<GradleBuildModel> allModels = new ArrayList<>();
     if (myProjectBuildFile != null) {
       allModels.add(new GradleBuildModelImpl(myProjectBuildFile));
@@ -197,6 +232,6 @@ public class ProjectBuildModelImpl implements ProjectBuildModel {
   }
 
   private void runOverProjectTree(@NotNull Consumer<GradleDslFile> func) {
-    myBuildModelContext.getAllRequestedFiles().forEach(func);
+    getContext().getAllRequestedFiles().forEach(func);
   }
 }
@@ -43,7 +43,8 @@ import java.util.List;
  * A context object used to hold information relevant to each unique instance of the project/build model.
  * This means there is one {@link BuildModelContext} for each call to the following methods,
  * {@link GradleBuildModel#parseBuildFile(VirtualFile, Project)}, {@link GradleBuildModel#get(Module)}
- * and {@link ProjectBuildModel#get(Project)}. This can be accessed from each of the {@link GradleDslFile}s.
+ * and {@link ProjectBuildModel#get(Project)}, unless {@link ProjectBuildModel#get(Project)} picks one up from the
+ * {@link BuildModelContextCache}. This can be accessed from each of the {@link GradleDslFile}s.
  */
 public final class BuildModelContext {
   @NotNull
@@ -108,6 +109,13 @@ public final class BuildModelContext {
     }
   }
 
+  /**
+   * Drops the notifications of a file which is about to be parsed again.
+   */
+  public void clearNotifications(@NotNull GradleDslFile file) {
+    myNotifications.remove(file);
+  }
+
   /**
    * Resets the state of the build context.
    */
@@ -0,0 +1,262 @@
+package me.scana.okgradle.internal.dsl.parser;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.impl.PsiTreeChangeEventImpl;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement;
+import me.scana.okgradle.internal.dsl.parser.elements.GradlePropertiesDslElement;
+import me.scana.okgradle.internal.dsl.parser.files.GradleBuildFile;
+import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile;
+import me.scana.okgradle.util.Constants;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the parsed files of a project between {@link me.scana.okgradle.internal.dsl.api.ProjectBuildModel}s, so that a new model
+ * does not have to parse the root build file, {@code gradle.properties} and the settings file again.
+ * <p>
+ * A {@link BuildModelContext} is handed back with {@link #offer(VirtualFile, BuildModelContext)} once its changes were applied and
+ * handed out to at most one model by {@link #take(VirtualFile)}; a model created while another one holds it parses its own files,
+ * so changes that were not applied are never seen by anyone else.
+ * <p>
+ * Before a context is handed out, the files edited since it was offered are brought up to date. PSI changes are tracked while the
+ * context waits, so usually only the blocks that were edited are parsed again, see {@link GradleDslFile#findChangedBlocks}.
+ * Otherwise the whole file is parsed again. When that is not possible on its own, because other files refer to its properties,
+ * apply it or are derived from it, the whole context is dropped. So is a context for which a {@code gradle.properties} or applied
+ * file was created since, as it would have been parsed along with the others.
+ */
+public final class BuildModelContextCache {
+  @NotNull private final Map<String, Entry> myEntries = new HashMap<>();
+
+  @NotNull
+  public static BuildModelContextCache getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, BuildModelContextCache.class);
+  }
+
+  /**
+   * Returns the context last offered for the project with the given root build file, with every file up to date, or null if
+   * there is none or it could not be brought up to date.
+   */
+  @Nullable
+  public BuildModelContext take(@NotNull VirtualFile rootFile) {
+    Entry entry;
+    synchronized (myEntries) {
+      entry = myEntries.remove(rootFile.getUrl());
+    }
+    if (entry == null) {
+      return null;
+    }
+    Disposer.dispose(entry);
+    boolean isUpToDate = ApplicationManager.getApplication().runReadAction((Computable<Boolean>)entry::refresh);
+    return isUpToDate ? entry.myContext : null;
+  }
+
+  /**
+   * Keeps {@code context} for the next model of the project with the given root build file. The files of the context must not
+   * have any changes that were not applied, and it must not be changed any more by whoever offered it.
+   */
+  public void offer(@NotNull VirtualFile rootFile, @NotNull BuildModelContext context) {
+    Entry entry = ApplicationManager.getApplication().runReadAction((Computable<Entry>)() -> new Entry(context));
+    Entry oldEntry;
+    synchronized (myEntries) {
+      oldEntry = myEntries.put(rootFile.getUrl(), entry);
+    }
+    if (oldEntry != null) {
+      Disposer.dispose(oldEntry);
+    }
+  }
+
+  public void clear() {
+    List<Entry> entries;
+    synchronized (myEntries) {
+      entries = new ArrayList<>(myEntries.values());
+      myEntries.clear();
+    }
+    entries.forEach(Disposer::dispose);
+  }
+
+  private static long modificationStamp(@NotNull GradleDslFile file) {
+    Document document = FileDocumentManager.getInstance().getCachedDocument(file.getFile());
+    return document != null ? document.getModificationStamp() : file.getFile().getModificationStamp();
+  }
+
+  private static final class Entry extends PsiTreeChangeAdapter implements Disposable {
+    @NotNull private final BuildModelContext myContext;
+    @NotNull private final Map<GradleDslFile, Long> myStamps = new HashMap<>();
+    // The PSI elements whose children changed since the context was offered, by file.
+    @NotNull private final Map<VirtualFile, List<PsiElement>> myChangedElements = new HashMap<>();
+    // The URLs of the files the context would have parsed had they existed when it was offered.
+    @NotNull private final List<String> myAbsentFileUrls = new ArrayList<>();
+
+    private Entry(@NotNull BuildModelContext context) {
+      myContext = context;
+      for (GradleDslFile file : context.getAllRequestedFiles()) {
+        myStamps.put(file, modificationStamp(file));
+        myChangedElements.put(file.getFile(), new ArrayList<>());
+        myAbsentFileUrls.addAll(file.getMissingAppliedFileUrls());
+        VirtualFile directory = file.getFile().getParent();
+        if (file instanceof GradleBuildFile && file.getSiblingDslFile() == null && directory != null) {
+          myAbsentFileUrls.add(directory.getUrl() + "/" + Constants.GRADLE_PROPERTIES);
+        }
+      }
+      Project project = context.getProject();
+      Disposer.register(project, this);
+      PsiManager.getInstance(project).addPsiTreeChangeListener(this, this);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void childAdded(@NotNull PsiTreeChangeEvent event) {
+      changed(event, event.getParent());
+    }
+
+    @Override
+    public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+      changed(event, event.getParent());
+    }
+
+    @Override
+    public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+      changed(event, event.getParent());
+    }
+
+    @Override
+    public void childMoved(@NotNull PsiTreeChangeEvent event) {
+      changed(event, event.getOldParent());
+      changed(event, event.getNewParent());
+    }
+
+    @Override
+    public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+      // Generic changes only summarize the events above.
+      if (!(event instanceof PsiTreeChangeEventImpl && ((PsiTreeChangeEventImpl)event).isGenericChange())) {
+        changed(event, event.getParent());
+      }
+    }
+
+    private void changed(@NotNull PsiTreeChangeEvent event, @Nullable PsiElement parent) {
+      PsiFile psiFile = event.getFile();
+      VirtualFile file = psiFile == null ? null : psiFile.getVirtualFile();
+      if (file == null || parent == null) {
+        return;
+      }
+      synchronized (myChangedElements) {
+        List<PsiElement> changedElements = myChangedElements.get(file);
+        if (changedElements != null) {
+          changedElements.add(parent);
+        }
+      }
+    }
+
+    @NotNull
+    private List<PsiElement> changedElements(@NotNull GradleDslFile file) {
+      synchronized (myChangedElements) {
+        return new ArrayList<>(myChangedElements.getOrDefault(file.getFile(), Collections.emptyList()));
+      }
+    }
+
+    /**
+     * READ ACCESS REQUIRED.
+     */
+    private boolean refresh() {
+      // A new gradle.properties or applied file changes what the other files resolve to.
+      VirtualFileManager fileManager = VirtualFileManager.getInstance();
+      for (String url : myAbsentFileUrls) {
+        if (fileManager.findFileByUrl(url) != null) {
+          return false;
+        }
+      }
+
+      Set<GradleDslFile> appliedFiles = new HashSet<>();
+      myStamps.keySet().forEach(file -> appliedFiles.addAll(file.getApplyDslElement()));
+
+      Map<GradleDslFile, List<GradlePropertiesDslElement>> changedBlocks = new LinkedHashMap<>();
+      List<GradleDslFile> changedFiles = new ArrayList<>();
+      for (Map.Entry<GradleDslFile, Long> entry : myStamps.entrySet()) {
+        GradleDslFile file = entry.getKey();
+        // Whoever offered the context changed it afterwards.
+        if (file.isModified() || !file.getFile().isValid()) {
+          return false;
+        }
+        if (modificationStamp(file) == entry.getValue()) {
+          continue;
+        }
+        // Changes which did not go through the PSI, e.g. to a document which was not committed, leave no changed elements.
+        List<PsiElement> changedElements = changedElements(file);
+        List<GradlePropertiesDslElement> blocks =
+          changedElements.isEmpty() || appliedFiles.contains(file) ? null : file.findChangedBlocks(changedElements);
+        if (blocks != null) {
+          changedBlocks.put(file, blocks);
+          continue;
+        }
+        // Properties files have no PsiFile to parse again.
+        if (!(file.getPsiElement() instanceof PsiFile) || appliedFiles.contains(file) || hasDependentsOutside(file, file)) {
+          return false;
+        }
+        changedFiles.add(file);
+      }
+
+      changedBlocks.forEach(GradleDslFile::reparseBlocks);
+      for (GradleDslFile file : changedFiles) {
+        detach(file);
+        myContext.clearNotifications(file);
+        file.reparse();
+      }
+      return true;
+    }
+
+    private static boolean hasDependentsOutside(@NotNull GradleDslElement element, @NotNull GradleDslFile file) {
+      for (GradleReferenceInjection injection : element.getDependents()) {
+        if (injection.getOriginElement().getDslFile() != file) {
+          return true;
+        }
+      }
+      for (GradleDslElement child : element.getChildren()) {
+        if (hasDependentsOutside(child, file)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Drops the references of {@code file} to other files, they are registered again when it is parsed.
+     */
+    private void detach(@NotNull GradleDslFile file) {
+      for (GradleReferenceInjection injection : file.getDependencies()) {
+        GradleDslElement toBeInjected = injection.getToBeInjected();
+        if (toBeInjected == null) {
+          myContext.getDependencyManager().unregisterUnresolvedReference(injection);
+        }
+        else if (toBeInjected.getDslFile() != file) {
+          toBeInjected.unregisterDependent(injection);
+        }
+      }
+    }
+  }
+}
@@ -15,19 +15,34 @@
  */
 package me.scana.okgradle.internal.dsl.parser;
 
+import com.google.common.base.Splitter;
 import me.scana.okgradle.internal.dsl.parser.GradleReferenceInjection;
 import me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleNameElement;
+import me.scana.okgradle.util.PluginEvents;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Class to manage unresolved dependencies.
+ * <p>
+ * Unresolved references are also indexed by every name they mention, e.g. "rootProject.ext.deps['okhttp']" is found under
+ * "rootProject", "ext", "deps" and "okhttp". An element can only complete a reference which mentions its own name or the name
+ * of one of its children, so that is all {@link #resolveWith(GradleDslElement)} has to look at. References which go through
+ * another property, e.g. "lib.version" with "lib = libs.okhttp", are retried once that property's own reference resolves.
  */
 public final class DependencyManager {
-  @NotNull private final List<GradleReferenceInjection> myUnresolvedReferences = new ArrayList<>();
+  @NotNull private static final Pattern INDEX_BRACKETS = Pattern.compile("[\\[\\]]");
+
+  @NotNull private final Set<GradleReferenceInjection> myUnresolvedReferences = new LinkedHashSet<>();
+  @NotNull private final Map<String, Set<GradleReferenceInjection>> myUnresolvedReferencesByName = new HashMap<>();
 
   public static DependencyManager create() {
     return new DependencyManager();
@@ -42,7 +57,11 @@ public final class DependencyManager {
   public void registerUnresolvedReference(@NotNull GradleReferenceInjection injection) {
     // Make sure the reference is not resolved.
     assert !injection.isResolved();
-    myUnresolvedReferences.add(injection);
+    if (myUnresolvedReferences.add(injection)) {
+      for (String name : namesIn(injection)) {
+        myUnresolvedReferencesByName.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(injection);
+      }
+    }
   }
 
   /**
@@ -51,32 +70,111 @@ public final class DependencyManager {
   public void unregisterUnresolvedReference(@NotNull GradleReferenceInjection injection) {
     // Make sure the reference is not resolved.
     assert !injection.isResolved();
-    myUnresolvedReferences.remove(injection);
+    if (myUnresolvedReferences.remove(injection)) {
+      unindex(injection);
+    }
   }
 
   /**
-   * Attempt to resolve dependencies related to a change in a given element.
-   * This currently just delegates to {@link #resolveAll()}
+   * Attempt to resolve dependencies related to a change in a given element, these are the ones which mention the name
+   * of the element or of any element nested inside it.
    *
-   * @param element the element that has triggered the attempted resolve. This is currently unused.
+   * @param element the element that has triggered the attempted resolve.
    */
   public void resolveWith(@NotNull GradleDslElement element) {
-    resolveAll();
+    Set<GradleReferenceInjection> candidates = new LinkedHashSet<>();
+    collectCandidates(element, candidates, true);
+    while (!candidates.isEmpty()) {
+      List<GradleReferenceInjection> resolved = resolve(candidates);
+      candidates = new LinkedHashSet<>();
+      for (GradleReferenceInjection injection : resolved) {
+        collectCandidates(injection.getOriginElement(), candidates, false);
+      }
+    }
+  }
+
+  /**
+   * Attempt to resolve the unresolved dependencies of a given element and the elements nested inside it.
+   */
+  public void resolveFrom(@NotNull GradleDslElement element) {
+    List<GradleReferenceInjection> injections = new ArrayList<>();
+    for (GradleReferenceInjection injection : element.getDependencies()) {
+      if (myUnresolvedReferences.contains(injection)) {
+        injections.add(injection);
+      }
+    }
+    resolve(injections);
   }
 
   /**
    * Attempt to resolve all of the current unresolved dependencies.
    */
   public void resolveAll() {
-    for (Iterator<GradleReferenceInjection> it = myUnresolvedReferences.iterator(); it.hasNext();) {
-      GradleReferenceInjection injection = it.next();
-      // Attempt to re-resolve any references.
-      GradleDslElement newElement = injection.getOriginElement().resolveReference(injection.getName(), true);
-      if (newElement != null) {
-        injection.resolveWith(newElement);
-        newElement.registerDependent(injection);
-        it.remove();
+    resolve(new ArrayList<>(myUnresolvedReferences));
+  }
+
+  /**
+   * Returns the injections which were resolved.
+   */
+  @NotNull
+  private List<GradleReferenceInjection> resolve(@NotNull Iterable<GradleReferenceInjection> injections) {
+    List<GradleReferenceInjection> resolved = new ArrayList<>();
+    PluginEvents.Span span = PluginEvents.resolveReferences(myUnresolvedReferences.size());
+    try {
+      for (GradleReferenceInjection injection : injections) {
+        // Attempt to re-resolve any references.
+        GradleDslElement newElement = injection.getOriginElement().resolveReference(injection.getName(), true);
+        if (newElement != null) {
+          injection.resolveWith(newElement);
+          newElement.registerDependent(injection);
+          myUnresolvedReferences.remove(injection);
+          unindex(injection);
+          resolved.add(injection);
+        }
+      }
+    }
+    finally {
+      span.end(myUnresolvedReferences.size());
+    }
+    return resolved;
+  }
+
+  private void collectCandidates(@NotNull GradleDslElement element, @NotNull Set<GradleReferenceInjection> candidates, boolean withChildren) {
+    Set<GradleReferenceInjection> injections = myUnresolvedReferencesByName.get(element.getName());
+    if (injections != null) {
+      candidates.addAll(injections);
+    }
+    if (withChildren) {
+      for (GradleDslElement child : element.getChildren()) {
+        collectCandidates(child, candidates, true);
+      }
+    }
+  }
+
+  private void unindex(@NotNull GradleReferenceInjection injection) {
+    for (String name : namesIn(injection)) {
+      Set<GradleReferenceInjection> injections = myUnresolvedReferencesByName.get(name);
+      if (injections != null) {
+        injections.remove(injection);
+        if (injections.isEmpty()) {
+          myUnresolvedReferencesByName.remove(name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Splits a reference into the names an element would need to have to complete it, the segments between the dots and the
+   * keys inside any index, e.g. "deps.libs['okhttp']" -> "deps", "libs" and "okhttp".
+   */
+  @NotNull
+  private static List<String> namesIn(@NotNull GradleReferenceInjection injection) {
+    List<String> names = new ArrayList<>();
+    for (String segment : Splitter.on('.').trimResults().omitEmptyStrings().split(injection.getName())) {
+      for (String part : Splitter.on(INDEX_BRACKETS).trimResults().omitEmptyStrings().split(segment)) {
+        names.add(GradleNameElement.convertNameToKey(part));
       }
     }
+    return names;
   }
 }
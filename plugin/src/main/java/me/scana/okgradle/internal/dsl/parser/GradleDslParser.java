@@ -120,6 +120,22 @@ public interface GradleDslParser {
                                              @NotNull GradlePropertiesDslElement parentElement,
                                              @Nullable GradleNameElement nameElement);
 
+  /**
+   * Returns whether {@code blockElement} was parsed from a single block in the file, and can therefore be parsed again on its own
+   * using {@link #parseBlock(GradlePropertiesDslElement)}.
+   *
+   * This method REQUIRES read access.
+   */
+  boolean canParseBlock(@NotNull GradlePropertiesDslElement blockElement);
+
+  /**
+   * Parses the block {@code blockElement} was parsed from into it, this should only be called on an empty block that
+   * {@link #canParseBlock(GradlePropertiesDslElement)} accepts.
+   *
+   * This method REQUIRES read access.
+   */
+  void parseBlock(@NotNull GradlePropertiesDslElement blockElement);
+
   class Adapter implements GradleDslParser {
     @Override
     public void parse() { }
@@ -146,6 +162,12 @@ public interface GradleDslParser {
     @Override
     public boolean shouldInterpolate(@NotNull GradleDslElement elementToCheck) { return false; }
 
+    @Override
+    public boolean canParseBlock(@NotNull GradlePropertiesDslElement blockElement) { return false; }
+
+    @Override
+    public void parseBlock(@NotNull GradlePropertiesDslElement blockElement) { }
+
     @Override
     @NotNull
     public List<GradleReferenceInjection> getResolvedInjections(@NotNull GradleDslSimpleExpression context, @NotNull PsiElement psiElement) {
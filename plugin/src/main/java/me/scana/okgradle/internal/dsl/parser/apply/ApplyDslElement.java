@@ -18,6 +18,7 @@ package me.scana.okgradle.internal.dsl.parser.apply;
 import me.scana.okgradle.internal.dsl.parser.elements.*;
 import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile;
 import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.PsiElement;
@@ -35,6 +36,8 @@ public class ApplyDslElement extends GradlePropertiesDslElement {
   // The GradleDslFile that represents the virtual file that has been applied.
   // This will be set when parsing the build file we belong to.
   @NotNull private final List<GradleDslFile> myAppliedDslFiles = new ArrayList<>();
+  // The URLs of the applied files that could not be found, so that a cached model can notice when they are created.
+  @NotNull private final List<String> myMissingFileUrls = new ArrayList<>();
 
   public ApplyDslElement(@NotNull GradleDslElement parent) {
     super(parent, null, GradleNameElement.create(APPLY_BLOCK_NAME));
@@ -50,12 +53,17 @@ public class ApplyDslElement extends GradlePropertiesDslElement {
       if (fileName != null) {
         File realFile = new File(fileName);
         VirtualFile file;
+        String url;
         if (realFile.exists() && realFile.isAbsolute()) {
           file = LocalFileSystem.getInstance().findFileByIoFile(realFile);
+          url = VfsUtilCore.pathToUrl(realFile.getPath());
         } else {
-          file = VirtualFileManager.getInstance().findFileByUrl(getDslFile().getFile().getParent() + "/" + fileName);
+          url = getDslFile().getFile().getParent() + "/" + fileName;
+          file = VirtualFileManager.getInstance().findFileByUrl(url);
         }
-        if (file != null) {
+        if (file == null) {
+          myMissingFileUrls.add(url);
+        } else {
           // Parse the file
           GradleDslFile dslFile = getDslFile().getContext().getOrCreateBuildFile(file, true);
           myAppliedDslFiles.add(dslFile);
@@ -93,6 +101,11 @@ public class ApplyDslElement extends GradlePropertiesDslElement {
     return myAppliedDslFiles;
   }
 
+  @NotNull
+  public List<String> getMissingFileUrls() {
+    return myMissingFileUrls;
+  }
+
   @Nullable
   private static String attemptToExtractFileName(@NotNull GradleDslSimpleExpression element) {
     return (element).getValue(String.class);
@@ -78,6 +78,7 @@ public abstract class GradleDslElementImpl implements me.scana.okgradle.internal
     myParent = parent;
     myPsiElement = psiElement;
     myName = name;
+    myName.setOwner(this);
 
 
     if (parent == null) {
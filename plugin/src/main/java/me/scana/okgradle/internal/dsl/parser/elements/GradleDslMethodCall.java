@@ -233,6 +233,7 @@ public final class GradleDslMethodCall extends GradleDslSimpleExpression {
   public void setMethodName(@NotNull String newMethodName) {
     assert getNameElement().name().equals(getMethodName());
     myMethodName = newMethodName;
+    getNameElement().nameChanged();
   }
 
   @Override
@@ -63,6 +63,10 @@ public class GradleNameElement {
   @Nullable
   private String myName = null; // Cached version of the final name (to be reset on any change of the above fields).
 
+  // The element with this name, told about changes to it so that the lookups by name of the blocks holding it start over.
+  @Nullable
+  private GradleDslElement myOwner;
+
 
   /**
    * Requires read access.
@@ -118,6 +122,22 @@ public class GradleNameElement {
    */
   public void commitNameChange(@Nullable PsiElement nameElement) {
     setUpFrom(nameElement);
+    nameChanged();
+  }
+
+  void setOwner(@NotNull GradleDslElement owner) {
+    myOwner = owner;
+  }
+
+  void nameChanged() {
+    if (myOwner == null) {
+      return;
+    }
+    GradleDslElement parent = myOwner.getParent();
+    if (parent instanceof GradlePropertiesDslElement) {
+      ((GradlePropertiesDslElement)parent).childRenamed();
+    }
+    myOwner.getHolders().forEach(GradlePropertiesDslElement::childRenamed);
   }
 
   @NotNull
@@ -186,6 +206,7 @@ public class GradleNameElement {
       myFakeName = newName;
     }
     myName = null;
+    nameChanged();
   }
 
   public boolean isEmpty() {
@@ -32,6 +32,7 @@ import me.scana.okgradle.internal.dsl.parser.ext.ElementSort;
 import me.scana.okgradle.internal.dsl.parser.ext.ExtDslElement;
 import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -104,7 +105,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
   }
 
   private void removePropertyInternal(@NotNull String property) {
-    List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> elements = myProperties.removeAll(e -> e.myElement.getName().equals(property));
+    List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> elements = myProperties.removeAll(property);
     elements.forEach(e -> {
       e.setModified();
       updateDependenciesOnRemoveElement(e);
@@ -134,7 +135,11 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
   }
 
   private void hidePropertyInternal(@NotNull String property) {
-    myProperties.hideAll(e -> e.myElement.getName().equals(property));
+    myProperties.hideAll(property);
+  }
+
+  void childRenamed() {
+    myProperties.invalidateIndex();
   }
 
   public void addAppliedModelProperties(@NotNull GradleDslFile file) {
@@ -329,7 +334,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
   }
 
   private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getElementWhere(@NotNull String name, @NotNull Predicate<ElementList.ElementItem> predicate) {
-    return getElementsWhere(predicate).get(name);
+    return myProperties.getElementNamed(name, predicate);
   }
 
   @Nullable
@@ -357,8 +362,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
       return getElementWhere(property, PROPERTY_FILTER);
     }
     else {
-      return myProperties
-        .getElementBeforeChildWhere(e -> PROPERTY_FILTER.test(e) && e.myElement.getName().equals(property), element, includeSelf);
+      return myProperties.getElementNamedBeforeChild(property, PROPERTY_FILTER, element, includeSelf);
     }
   }
 
@@ -368,8 +372,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
       return getElementWhere(property, ANY_FILTER);
     }
     else {
-      return myProperties
-        .getElementBeforeChildWhere(e -> ANY_FILTER.test(e) && e.myElement.getName().equals(property), element, includeSelf);
+      return myProperties.getElementNamedBeforeChild(property, ANY_FILTER, element, includeSelf);
     }
   }
 
@@ -385,7 +388,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
   @Nullable
   public <T extends me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> T getPropertyElement(@NotNull List<String> properties, @NotNull Class<T> clazz) {
-    me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement propertyElement = myProperties.getElementWhere(e -> properties.contains(e.myElement.getName()));
+    me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement propertyElement = myProperties.getLastElementNamed(properties);
     return clazz.isInstance(propertyElement) ? clazz.cast(propertyElement) : null;
   }
 
@@ -397,7 +400,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
   @NotNull
   public List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> getPropertyElementsByName(@NotNull String propertyName) {
-    return myProperties.getElementsWhere(e -> e.myElement.getName().equals(propertyName) && PROPERTY_FILTER.test(e));
+    return myProperties.getElementsNamed(propertyName, PROPERTY_FILTER);
   }
 
   @NotNull
@@ -407,9 +410,8 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
   @Nullable
   public me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getOriginalElementForNameAndType(@NotNull String name, @NotNull PropertyType type) {
-    return myProperties.myElements.stream().filter(
-      e -> e.myElement.getName().equals(name) && e.myExistsOnFile && e.myElement.getElementType() == type).map(e -> e.myElement)
-                                  .reduce((a, b) -> b).orElse(null);
+    return myProperties.itemsNamed(name).stream().filter(e -> e.myExistsOnFile && e.myElement.getElementType() == type).map(e -> e.myElement)
+                       .reduce((a, b) -> b).orElse(null);
   }
 
   /**
@@ -632,6 +634,32 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
     myProperties.clear();
   }
 
+  /**
+   * Returns whether every element of this block, and of the blocks inside it, was parsed from within {@code psiElement}.
+   */
+  public boolean isParsedFromWithin(@NotNull PsiElement psiElement) {
+    for (ElementList.ElementItem item : myProperties.myElements) {
+      PsiElement itemPsiElement = item.myElement.getPsiElement();
+      if (!item.myExistsOnFile || itemPsiElement == null || !PsiTreeUtil.isAncestor(psiElement, itemPsiElement, false)) {
+        return false;
+      }
+      if (item.myElement instanceof GradlePropertiesDslElement && !((GradlePropertiesDslElement)item.myElement).isParsedFromWithin(psiElement)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drops the elements of this block and parses them again from its PSI. This must only be called for blocks accepted by
+   * {@link me.scana.okgradle.internal.dsl.parser.GradleDslParser#canParseBlock(GradlePropertiesDslElement)}, use
+   * {@link GradleDslFile#reparseBlocks(Collection)} which also takes care of the references to and from the block.
+   */
+  public void reparseBlock() {
+    clear();
+    getDslFile().getParser().parseBlock(this);
+  }
+
   public int reorderAndMaybeGetNewIndex(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element) {
     int result = sortElementsAndMaybeGetNewIndex(element);
     element.resolve();
@@ -682,19 +710,23 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
   }
 
   public boolean isApplied(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element) {
-    for (ElementList.ElementItem item : myProperties.myElements) {
-      if (item.myElement == element) {
-        return item.myElementState == APPLIED;
-      }
-    }
+    ElementList.ElementItem item = myProperties.find(element);
     // The element must be found.
-    throw new IllegalStateException("Element not found in parent");
+    if (item == null) {
+      throw new IllegalStateException("Element not found in parent");
+    }
+    return item.myElementState == APPLIED;
   }
 
   /**
    * Class to deal with retrieving the correct property for a given context. It manages whether
    * or not variable types should be returned along with coordinating a number of properties
    * with the same name.
+   * <p>
+   * Lookups by name or by element go through an index of the items in list order. Appending keeps it up to date, anything
+   * else that changes the order of the list drops it to be rebuilt on the next lookup, and so does renaming one of the elements.
+   * Element states are checked on lookup, so changing them needs no bookkeeping. The index is only published once it is
+   * complete, so concurrent reads at worst build it twice.
    */
   private static class ElementList {
     /**
@@ -714,76 +746,170 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
       }
     }
 
+    private static class Index {
+      // Items with a given name, in list order.
+      @NotNull private final Map<String, List<ElementItem>> myItemsByName = new HashMap<>();
+      // Position of each element in myElements. If an element was added twice, the first position is kept.
+      @NotNull private final Map<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement, Integer> myPositions = new IdentityHashMap<>();
+
+      private void add(@NotNull ElementItem item, int position) {
+        myItemsByName.computeIfAbsent(item.myElement.getName(), name -> new ArrayList<>(1)).add(item);
+        myPositions.putIfAbsent(item.myElement, position);
+      }
+    }
+
     @NotNull private final List<ElementItem> myElements;
+    @Nullable private volatile Index myIndex;
 
     private ElementList() {
       myElements = new ArrayList<>();
     }
 
-    private void forEach(@NotNull Consumer<ElementItem> func) {
-      myElements.forEach(func);
+    @NotNull
+    private Index index() {
+      Index index = myIndex;
+      if (index == null) {
+        index = new Index();
+        for (int i = 0; i < myElements.size(); i++) {
+          index.add(myElements.get(i), i);
+        }
+        myIndex = index;
+      }
+      return index;
     }
 
     @NotNull
-    private List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> getElementsWhere(@NotNull Predicate<ElementItem> predicate) {
-      return myElements.stream().filter(e -> e.myElementState != TO_BE_REMOVED && e.myElementState != HIDDEN)
-                       .filter(predicate).map(e -> e.myElement).collect(Collectors.toList());
+    private Map<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement, Integer> positions() {
+      return index().myPositions;
+    }
+
+    private void invalidateIndex() {
+      myIndex = null;
+    }
+
+    @NotNull
+    private List<ElementItem> itemsNamed(@NotNull String name) {
+      return index().myItemsByName.getOrDefault(name, Collections.emptyList());
     }
 
     @Nullable
-    private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getElementWhere(@NotNull Predicate<ElementItem> predicate) {
-      // We reduce to get the last element stored, this will be the one we want as it was added last and therefore must appear
-      // later on in the file.
-      return myElements.stream().filter(e -> e.myElementState != TO_BE_REMOVED && e.myElementState != HIDDEN)
-                       .filter(predicate).map(e -> e.myElement).reduce((first, second) -> second).orElse(null);
+    private ElementItem find(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element) {
+      Integer position = positions().get(element);
+      return position == null ? null : myElements.get(position);
+    }
+
+    private static boolean isVisible(@NotNull ElementItem item) {
+      return item.myElementState != TO_BE_REMOVED && item.myElementState != HIDDEN;
     }
 
     /**
-     * Return the last element satisfying {@code predicate} that is BEFORE {@code child}. If {@code child} is not a child of
-     * this {@link GradlePropertiesDslElement} then every element is checked and the last one (if any) returned.
+     * Returns the last visible element with the given name satisfying {@code predicate}. It was added last and therefore must
+     * appear later on in the file.
      */
     @Nullable
-    private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getElementBeforeChildWhere(@NotNull Predicate<ElementItem> predicate,
-                                                                                                          @NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement child,
-                                                                                                          boolean includeSelf) {
-      me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement lastElement = null;
-      for (ElementItem i : myElements) {
-        // Skip removed or hidden elements.
-        if (i.myElementState == TO_BE_REMOVED || i.myElementState == HIDDEN) {
-          continue;
+    private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getElementNamed(@NotNull String name, @NotNull Predicate<ElementItem> predicate) {
+      List<ElementItem> items = itemsNamed(name);
+      for (int i = items.size() - 1; i >= 0; i--) {
+        ElementItem item = items.get(i);
+        if (isVisible(item) && predicate.test(item)) {
+          return item.myElement;
         }
+      }
+      return null;
+    }
 
-        if (predicate.test(i)) {
-          if (includeSelf || child != i.myElement) {
-            lastElement = i.myElement;
-          }
+    @NotNull
+    private List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> getElementsNamed(@NotNull String name, @NotNull Predicate<ElementItem> predicate) {
+      return itemsNamed(name).stream().filter(ElementList::isVisible).filter(predicate).map(e -> e.myElement).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the visible element with any of the given names that comes last in the list.
+     */
+    @Nullable
+    private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getLastElementNamed(@NotNull Collection<String> names) {
+      Map<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement, Integer> positions = positions();
+      me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement lastElement = null;
+      int lastPosition = -1;
+      for (String name : names) {
+        me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element = getElementNamed(name, e -> true);
+        if (element != null && positions.get(element) > lastPosition) {
+          lastElement = element;
+          lastPosition = positions.get(element);
         }
+      }
+      return lastElement;
+    }
 
-        if (i.myElement == child) {
-          return lastElement;
+    /**
+     * Return the last element with the given name satisfying {@code predicate} that is BEFORE {@code child}. If {@code child} is not a
+     * child of this {@link GradlePropertiesDslElement} then every element is checked and the last one (if any) returned.
+     */
+    @Nullable
+    private me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement getElementNamedBeforeChild(@NotNull String name,
+                                                                                                        @NotNull Predicate<ElementItem> predicate,
+                                                                                                        @NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement child,
+                                                                                                        boolean includeSelf) {
+      Map<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement, Integer> positions = positions();
+      ElementItem childItem = find(child);
+      // A removed or hidden child is never reached, so every element is checked.
+      int childPosition = childItem != null && isVisible(childItem) ? positions.get(child) : Integer.MAX_VALUE;
+      me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement lastElement = null;
+      for (ElementItem item : itemsNamed(name)) {
+        if (!isVisible(item) || !predicate.test(item)) {
+          continue;
+        }
+        int position = positions.get(item.myElement);
+        if (position > childPosition) {
+          break;
+        }
+        if (includeSelf || child != item.myElement) {
+          lastElement = item.myElement;
         }
       }
       return lastElement;
     }
 
+    private void forEach(@NotNull Consumer<ElementItem> func) {
+      myElements.forEach(func);
+    }
+
+    @NotNull
+    private List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> getElementsWhere(@NotNull Predicate<ElementItem> predicate) {
+      return myElements.stream().filter(e -> e.myElementState != TO_BE_REMOVED && e.myElementState != HIDDEN)
+                       .filter(predicate).map(e -> e.myElement).collect(Collectors.toList());
+    }
+
     private void addElement(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement newElement, @NotNull me.scana.okgradle.internal.dsl.parser.elements.ElementState state, boolean onFile) {
-      myElements.add(new ElementItem(newElement, state, onFile));
+      ElementItem item = new ElementItem(newElement, state, onFile);
+      myElements.add(item);
+      Index index = myIndex;
+      if (index != null) {
+        index.add(item, myElements.size() - 1);
+      }
     }
 
     private void addElementAtIndex(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement newElement, @NotNull me.scana.okgradle.internal.dsl.parser.elements.ElementState state, int index, boolean onFile) {
-      myElements.add(getRealIndex(index, newElement), new ElementItem(newElement, state, onFile));
+      int realIndex = getRealIndex(index, newElement);
+      if (realIndex == myElements.size()) {
+        addElement(newElement, state, onFile);
+        return;
+      }
+      myElements.add(realIndex, new ElementItem(newElement, state, onFile));
+      invalidateIndex();
     }
 
     // Note: The index position is calculated AFTER the element has been removed from the list.
     private void moveElementToIndex(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element, int index) {
       // Find the element.
-      ElementItem item = myElements.stream().filter(e -> e.myElement == element).findFirst().orElse(null);
+      ElementItem item = find(element);
       if (item == null) {
         return;
       }
 
       // Remove the element.
       myElements.remove(item);
+      invalidateIndex();
       // Set every EXISTING element in this tree to MOVED.
       moveElementTree(item);
       // Add the element back at the given index.
@@ -817,7 +943,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
     @Nullable
     private me.scana.okgradle.internal.dsl.parser.elements.ElementState remove(@NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement element) {
-      ElementItem item = myElements.stream().filter(e -> element == e.myElement).findFirst().orElse(null);
+      ElementItem item = find(element);
       if (item == null) {
         return null;
       }
@@ -828,31 +954,31 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
     @Nullable
     private me.scana.okgradle.internal.dsl.parser.elements.ElementState replaceElement(@Nullable me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement oldElement, @NotNull me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement newElement) {
-      for (int i = 0; i < myElements.size(); i++) {
-        ElementItem item = myElements.get(i);
-        if (oldElement == item.myElement) {
-          me.scana.okgradle.internal.dsl.parser.elements.ElementState oldState = item.myElementState;
-          item.myElementState = TO_BE_REMOVED;
-          me.scana.okgradle.internal.dsl.parser.elements.ElementState newState = TO_BE_ADDED;
-          if (oldState == APPLIED || oldState == HIDDEN) {
-            newState = oldState;
-          }
-          myElements.add(i, new ElementItem(newElement, newState, false));
-          return oldState;
-        }
+      Integer position = oldElement == null ? null : positions().get(oldElement);
+      if (position == null) {
+        return null;
       }
-      return null;
+      ElementItem item = myElements.get(position);
+      me.scana.okgradle.internal.dsl.parser.elements.ElementState oldState = item.myElementState;
+      item.myElementState = TO_BE_REMOVED;
+      me.scana.okgradle.internal.dsl.parser.elements.ElementState newState = TO_BE_ADDED;
+      if (oldState == APPLIED || oldState == HIDDEN) {
+        newState = oldState;
+      }
+      myElements.add(position, new ElementItem(newElement, newState, false));
+      invalidateIndex();
+      return oldState;
     }
 
     @NotNull
-    private List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> removeAll(@NotNull Predicate<ElementItem> filter) {
-      List<ElementItem> toBeRemoved = myElements.stream().filter(filter).collect(Collectors.toList());
+    private List<me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement> removeAll(@NotNull String name) {
+      List<ElementItem> toBeRemoved = itemsNamed(name);
       toBeRemoved.forEach(e -> e.myElementState = TO_BE_REMOVED);
       return toBeRemoved.stream().map(e -> e.myElement).collect(Collectors.toList());
     }
 
-    private void hideAll(@NotNull Predicate<ElementItem> filter) {
-      myElements.stream().filter(filter).forEach(e -> e.myElementState = HIDDEN);
+    private void hideAll(@NotNull String name) {
+      itemsNamed(name).forEach(e -> e.myElementState = HIDDEN);
     }
 
     private boolean isEmpty() {
@@ -868,6 +994,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
         }
         if (item.myElementState == TO_BE_ADDED) {
           i.remove();
+          invalidateIndex();
         }
       }
     }
@@ -882,6 +1009,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
         if (item.myElementState == TO_BE_REMOVED) {
           removeFunc.accept(item.myElement);
           i.remove();
+          invalidateIndex();
         }
       }
     }
@@ -900,6 +1028,7 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
           }
           else {
             i.remove();
+            invalidateIndex();
           }
         }
       }
@@ -914,10 +1043,11 @@ public abstract class GradlePropertiesDslElement extends GradleDslElementImpl {
 
     /**
      * Clears ALL element in this element list. This clears the whole list without affecting state. If you actually want to remove
-     * elements from the file use {@link #removeAll(Predicate)}.
+     * elements from the file use {@link #removeAll(String)}.
      */
     private void clear() {
       myElements.clear();
+      invalidateIndex();
     }
 
     /**
@@ -20,13 +20,20 @@ import static com.intellij.openapi.vfs.VfsUtilCore.virtualToIoFile;
 
 import me.scana.okgradle.internal.dsl.api.BuildModelNotification;
 import me.scana.okgradle.internal.dsl.parser.BuildModelContext;
+import me.scana.okgradle.internal.dsl.parser.DependencyManager;
 import me.scana.okgradle.internal.dsl.parser.GradleDslParser;
 import me.scana.okgradle.internal.dsl.parser.GradleDslWriter;
+import me.scana.okgradle.internal.dsl.parser.GradleReferenceInjection;
 import me.scana.okgradle.internal.dsl.parser.apply.ApplyDslElement;
+import me.scana.okgradle.internal.dsl.parser.buildscript.SubProjectsDslElement;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslClosure;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement;
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslSimpleExpression;
 import me.scana.okgradle.internal.dsl.parser.elements.GradleNameElement;
 import me.scana.okgradle.internal.dsl.parser.elements.GradlePropertiesDslElement;
 import me.scana.okgradle.internal.dsl.parser.groovy.GroovyDslParser;
 import me.scana.okgradle.internal.dsl.parser.groovy.GroovyDslWriter;
+import me.scana.okgradle.util.PluginEvents;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import com.intellij.openapi.application.Application;
@@ -41,9 +48,17 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.groovy.lang.psi.GroovyFile;
@@ -100,10 +115,199 @@ public abstract class GradleDslFile extends GradlePropertiesDslElement {
    */
   public void reparse() {
     clear();
-    parse();
+    parse(true);
   }
 
   public void parse() {
+    parse(false);
+  }
+
+  /**
+   * Finds the smallest blocks containing each of {@code changedElements} which can be parsed again on their own with
+   * {@link #reparseBlocks(Collection)}. Returns null if a change is outside of any such block, the whole file then has to be parsed
+   * again with {@link #reparse()}. That is also the case for changes to a block which was parsed more than once, e.g. within
+   * {@code allprojects}, or which is applied to other projects, i.e. within {@code subprojects}.
+   *
+   * READ ACCESS REQUIRED.
+   */
+  @Nullable
+  public List<GradlePropertiesDslElement> findChangedBlocks(@NotNull Collection<PsiElement> changedElements) {
+    Map<PsiElement, GradlePropertiesDslElement> blocksByPsiElement = new HashMap<>();
+    Set<PsiElement> sharedPsiElements = new HashSet<>();
+    collectBlocks(this, blocksByPsiElement, sharedPsiElements);
+
+    Set<GradlePropertiesDslElement> blocks = new LinkedHashSet<>();
+    for (PsiElement changedElement : changedElements) {
+      GradlePropertiesDslElement block =
+        changedElement.isValid() ? findEnclosingBlock(changedElement, blocksByPsiElement, sharedPsiElements) : null;
+      if (block == null) {
+        return null;
+      }
+      blocks.add(block);
+    }
+    // Blocks nested in another changed block are parsed along with it.
+    return blocks.stream().filter(block -> blocks.stream().noneMatch(other -> other != block && isWithin(block, other)))
+                 .collect(Collectors.toList());
+  }
+
+  /**
+   * Parses the given blocks again, see {@link #findChangedBlocks(Collection)}. Only references to and from the blocks are resolved
+   * again, references elsewhere keep pointing where they did.
+   *
+   * READ ACCESS REQUIRED.
+   */
+  public void reparseBlocks(@NotNull Collection<GradlePropertiesDslElement> blocks) {
+    PluginEvents.Span span = PluginEvents.dslParse(myFile::getPath, getName(), true);
+    try {
+      DependencyManager dependencyManager = getContext().getDependencyManager();
+      for (GradlePropertiesDslElement block : blocks) {
+        detachBlock(block);
+        block.reparseBlock();
+        // First the references from inside the block, then the ones from outside which were pointing into it.
+        dependencyManager.resolveFrom(block);
+        dependencyManager.resolveWith(block);
+      }
+    }
+    finally {
+      if (span.isRecording()) {
+        span.end(getAllElements().size());
+      }
+      else {
+        span.end();
+      }
+    }
+  }
+
+  /**
+   * Maps the PSI elements of the blocks within {@code element} to them, PSI elements which more than one block was parsed from end
+   * up in {@code sharedPsiElements}.
+   */
+  private static void collectBlocks(@NotNull GradleDslElement element,
+                                    @NotNull Map<PsiElement, GradlePropertiesDslElement> blocks,
+                                    @NotNull Set<PsiElement> sharedPsiElements) {
+    for (GradleDslElement child : element.getChildren()) {
+      PsiElement psiElement = child.getPsiElement();
+      if (child instanceof GradlePropertiesDslElement && !(child instanceof GradleDslClosure) && psiElement != null) {
+        GradlePropertiesDslElement block = blocks.putIfAbsent(psiElement, (GradlePropertiesDslElement)child);
+        if (block != null && block != child) {
+          sharedPsiElements.add(psiElement);
+        }
+      }
+      collectBlocks(child, blocks, sharedPsiElements);
+    }
+  }
+
+  @Nullable
+  private GradlePropertiesDslElement findEnclosingBlock(@NotNull PsiElement changedElement,
+                                                        @NotNull Map<PsiElement, GradlePropertiesDslElement> blocksByPsiElement,
+                                                        @NotNull Set<PsiElement> sharedPsiElements) {
+    PsiElement psiFile = getPsiElement();
+    for (PsiElement element = changedElement; element != null && element != psiFile; element = element.getParent()) {
+      // Parsing only one of the blocks would leave the others stale.
+      if (sharedPsiElements.contains(element)) {
+        return null;
+      }
+      GradlePropertiesDslElement block = blocksByPsiElement.get(element);
+      if (block != null && getParser().canParseBlock(block) && block.isParsedFromWithin(element)) {
+        return isWithinSubProjects(block) ? null : block;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isWithinSubProjects(@NotNull GradleDslElement element) {
+    for (GradleDslElement current = element; current != null; current = current.getParent()) {
+      if (current instanceof SubProjectsDslElement) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Disconnects the elements of {@code block} from the rest of the model, the references going out of the block are registered
+   * again when it is parsed, the ones coming into it become unresolved until then.
+   */
+  private void detachBlock(@NotNull GradlePropertiesDslElement block) {
+    DependencyManager dependencyManager = getContext().getDependencyManager();
+    for (GradleReferenceInjection injection : block.getDependencies()) {
+      GradleDslElement toBeInjected = injection.getToBeInjected();
+      if (toBeInjected == null) {
+        dependencyManager.unregisterUnresolvedReference(injection);
+      }
+      else if (!isWithin(toBeInjected, block)) {
+        toBeInjected.unregisterDependent(injection);
+      }
+    }
+    breakDependentsOutside(block, block, dependencyManager);
+  }
+
+  private static void breakDependentsOutside(@NotNull GradleDslElement element,
+                                             @NotNull GradlePropertiesDslElement block,
+                                             @NotNull DependencyManager dependencyManager) {
+    for (GradleReferenceInjection injection : element.getDependents()) {
+      GradleDslSimpleExpression origin = injection.getOriginElement();
+      if (isWithin(origin, block)) {
+        continue;
+      }
+      element.unregisterDependent(injection);
+      injection.resolveWith(null);
+      dependencyManager.registerUnresolvedReference(injection);
+      dropCachedValues(origin);
+    }
+    for (GradleDslElement child : element.getChildren()) {
+      breakDependentsOutside(child, block, dependencyManager);
+    }
+  }
+
+  /**
+   * Drops the values cached by {@code element} and everything depending on it, without marking any of them as changed.
+   */
+  private static void dropCachedValues(@NotNull GradleDslSimpleExpression element) {
+    List<GradleDslSimpleExpression> unmodified = new ArrayList<>();
+    Set<GradleDslElement> visited = Sets.newIdentityHashSet();
+    Deque<GradleDslSimpleExpression> queue = new ArrayDeque<>();
+    queue.add(element);
+    while (!queue.isEmpty()) {
+      GradleDslSimpleExpression current = queue.remove();
+      if (!visited.add(current)) {
+        continue;
+      }
+      if (!current.isModified()) {
+        unmodified.add(current);
+      }
+      current.getDependents().forEach(injection -> queue.add(injection.getOriginElement()));
+    }
+    // Modifying an element modifies everything depending on it too.
+    element.modify();
+    unmodified.forEach(GradleDslSimpleExpression::commit);
+  }
+
+  private static boolean isWithin(@NotNull GradleDslElement element, @NotNull GradleDslElement block) {
+    for (GradleDslElement current = element; current != null; current = current.getParent()) {
+      if (current == block) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void parse(boolean isReparse) {
+    PluginEvents.Span span = PluginEvents.dslParse(myFile::getPath, getName(), isReparse);
+    try {
+      doParse();
+    }
+    finally {
+      if (span.isRecording()) {
+        span.end(getAllElements().size());
+      }
+      else {
+        span.end();
+      }
+    }
+  }
+
+  private void doParse() {
     myGradleDslParser.parse();
     // Attempt to resolve all the remaining dependencies. Ideally we would not have to do this here, but when elements
     // are created there parents are not necessarily attached to the tree. This means references to their siblings will not
@@ -138,6 +342,14 @@ public abstract class GradleDslFile extends GradlePropertiesDslElement {
     return myApplyDslElement == null ? ImmutableList.of() : myApplyDslElement.getAppliedDslFiles();
   }
 
+  /**
+   * Returns the URLs of the files this file applies which did not exist when it was parsed.
+   */
+  @NotNull
+  public List<String> getMissingAppliedFileUrls() {
+    return myApplyDslElement == null ? ImmutableList.of() : myApplyDslElement.getMissingFileUrls();
+  }
+
   public void setParentModuleDslFile(@NotNull GradleDslFile parentModuleDslFile) {
     myParentModuleDslFile = parentModuleDslFile;
     myParentModuleDslFile.myChildModuleDslFiles.add(this);
@@ -197,7 +409,13 @@ public abstract class GradleDslFile extends GradlePropertiesDslElement {
     }
 
     // And update us.
-    super.apply();
+    PluginEvents.Span span = PluginEvents.dslApply(myFile::getPath, getName());
+    try {
+      super.apply();
+    }
+    finally {
+      span.end();
+    }
   }
 
   public void registerApplyElement(@NotNull ApplyDslElement applyElement) {
@@ -225,12 +443,18 @@ public abstract class GradleDslFile extends GradlePropertiesDslElement {
       return;
     }
 
-    if (psiDocumentManager.isDocumentBlockedByPsi(document)) {
-      psiDocumentManager.doPostponedOperationsAndUnblockDocument(document);
-    }
+    PluginEvents.Span span = PluginEvents.dslSave(myFile::getPath);
+    try {
+      if (psiDocumentManager.isDocumentBlockedByPsi(document)) {
+        psiDocumentManager.doPostponedOperationsAndUnblockDocument(document);
+      }
 
-    // Save the file to disk to ensure the changes exist when it is read.
-    FileDocumentManager.getInstance().saveDocument(document);
+      // Save the file to disk to ensure the changes exist when it is read.
+      FileDocumentManager.getInstance().saveDocument(document);
+    }
+    finally {
+      span.end();
+    }
   }
 
   @Nullable
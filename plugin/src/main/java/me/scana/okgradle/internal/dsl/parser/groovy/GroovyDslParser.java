@@ -260,6 +260,28 @@ public class GroovyDslParser implements GradleDslParser {
     return SharedParserUtilsKt.getBlockElement(myDslFile, nameParts, parentElement, nameElement);
   }
 
+  @Override
+  public boolean canParseBlock(@NotNull GradlePropertiesDslElement blockElement) {
+    PsiElement closure = blockElement.getPsiElement();
+    if (!(closure instanceof GrClosableBlock) || blockElement instanceof GradleDslClosure || blockElement instanceof GradleDslFile) {
+      return false;
+    }
+
+    // Only blocks written as "name { ... }", e.g. not the subprojects block that "allprojects { ... }" is also parsed into.
+    PsiElement methodCall = closure.getParent();
+    if (!(methodCall instanceof GrMethodCallExpression)) {
+      return false;
+    }
+    GrReferenceExpression referenceExpression = findChildOfType(methodCall, GrReferenceExpression.class);
+    return referenceExpression != null && GradleNameElement.from(referenceExpression).name().equals(blockElement.getName());
+  }
+
+  @Override
+  public void parseBlock(@NotNull GradlePropertiesDslElement blockElement) {
+    ApplicationManager.getApplication().assertReadAccessAllowed();
+    parse((GrClosableBlock)blockElement.getPsiElement(), blockElement);
+  }
+
   private void parse(@NotNull PsiElement psiElement, @NotNull GradleDslFile gradleDslFile) {
     boolean success = false;
     if (psiElement instanceof GrMethodCallExpression) {
@@ -2,33 +2,96 @@ package me.scana.okgradle.util
 
 import me.scana.okgradle.data.repository.Artifact
 import javax.swing.AbstractListModel
+import kotlin.math.min
 
+/**
+ * List of artifacts with at most one row per `groupId:name`.
+ *
+ * Rows are kept in an array, so painting a cell doesn't walk the list, and every change is reported
+ * with as few range events as possible.
+ */
 class ArtifactListModel : AbstractListModel<Artifact>() {
 
-    private val artifacts = LinkedHashSet<Artifact>()
-
-    fun add(element: Artifact) {
-        artifacts.add(element)
-        val index = artifacts.size - 1
-        fireIntervalAdded(this, index, index)
-    }
+    private var artifacts = ArrayList<Artifact>()
+    private var positions = HashMap<String, Int>()
 
     fun addAll(elements: List<Artifact>) {
         val previousSize = artifacts.size
-        artifacts.addAll(elements)
-        fireIntervalAdded(this, previousSize, previousSize + artifacts.size)
+        elements.forEach { append(it, artifacts, positions) }
+        if (artifacts.size > previousSize) {
+            fireIntervalAdded(this, previousSize, artifacts.size - 1)
+        }
+    }
+
+    /**
+     * Shows [elements] in the given order. Only the rows between the longest unchanged head and tail
+     * are reported as changed.
+     */
+    fun replaceAll(elements: List<Artifact>) {
+        val previous = artifacts
+        val current = ArrayList<Artifact>(elements.size)
+        val currentPositions = HashMap<String, Int>(elements.size * 2)
+        elements.forEach { append(it, current, currentPositions) }
+        artifacts = current
+        positions = currentPositions
+
+        val shorter = min(previous.size, current.size)
+        var head = 0
+        while (head < shorter && previous[head] == current[head]) {
+            head++
+        }
+        var tail = 0
+        while (tail < shorter - head && previous[previous.size - 1 - tail] == current[current.size - 1 - tail]) {
+            tail++
+        }
+        val removed = previous.size - head - tail
+        val added = current.size - head - tail
+        val changed = min(removed, added)
+        if (changed > 0) {
+            fireContentsChanged(this, head, head + changed - 1)
+        }
+        if (removed > changed) {
+            fireIntervalRemoved(this, head + changed, head + removed - 1)
+        }
+        if (added > changed) {
+            fireIntervalAdded(this, head + changed, head + added - 1)
+        }
+    }
+
+    fun update(element: Artifact) {
+        val index = positions[key(element)] ?: return
+        if (artifacts[index] == element) {
+            return
+        }
+        artifacts[index] = element
+        fireContentsChanged(this, index, index)
     }
 
     fun clear() {
-        artifacts.clear()
-        fireIntervalRemoved(this, 0, artifacts.size)
+        val previousSize = artifacts.size
+        if (previousSize == 0) {
+            return
+        }
+        artifacts = ArrayList()
+        positions = HashMap()
+        fireIntervalRemoved(this, 0, previousSize - 1)
     }
 
     override fun getElementAt(index: Int): Artifact {
-        return artifacts.elementAt(index)
+        return artifacts[index]
     }
 
     override fun getSize(): Int {
         return artifacts.size
     }
-}
\ No newline at end of file
+
+    private fun append(element: Artifact, artifacts: MutableList<Artifact>, positions: MutableMap<String, Int>) {
+        val key = key(element)
+        if (key !in positions) {
+            positions[key] = artifacts.size
+            artifacts.add(element)
+        }
+    }
+
+    private fun key(artifact: Artifact) = "${artifact.groupId}:${artifact.name}"
+}
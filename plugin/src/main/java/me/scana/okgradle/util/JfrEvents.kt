@@ -0,0 +1,173 @@
+package me.scana.okgradle.util
+
+import jdk.jfr.Category
+import jdk.jfr.Description
+import jdk.jfr.Event
+import jdk.jfr.EventType
+import jdk.jfr.Label
+import jdk.jfr.Name
+import jdk.jfr.StackTrace
+import me.scana.okgradle.util.PluginEvents.Span
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * [PluginEvents] backed by Flight Recorder. Only loaded when `jdk.jfr` is present.
+ */
+internal class JfrEvents : PluginEvents.Events() {
+
+    private val repositorySearch = EventType.getEventType(RepositorySearchEvent::class.java)
+    private val networkCall = EventType.getEventType(NetworkCallEvent::class.java)
+    private val dslParse = EventType.getEventType(DslParseEvent::class.java)
+    private val resolveReferences = EventType.getEventType(ResolveReferencesEvent::class.java)
+    private val dslApply = EventType.getEventType(DslApplyEvent::class.java)
+    private val dslSave = EventType.getEventType(DslSaveEvent::class.java)
+    private val addDependency = EventType.getEventType(AddDependencyEvent::class.java)
+
+    override fun repositorySearch(repository: String, queryLength: Int): Span {
+        if (!repositorySearch.isEnabled) return Span.NONE
+        val event = RepositorySearchEvent()
+        event.repository = repository
+        event.queryLength = queryLength
+        return EventSpan(event) { results = it }
+    }
+
+    override fun networkCall(method: String, url: String): Span {
+        if (!networkCall.isEnabled) return Span.NONE
+        val event = NetworkCallEvent()
+        event.method = method
+        event.url = url
+        return EventSpan(event) { status = it }
+    }
+
+    override fun dslParse(file: () -> String, module: String, isReparse: Boolean): Span {
+        if (!dslParse.isEnabled) return Span.NONE
+        val event = DslParseEvent()
+        event.file = file()
+        event.module = module
+        event.isReparse = isReparse
+        return EventSpan(event) { elements = it }
+    }
+
+    override fun resolveReferences(unresolved: Int): Span {
+        if (!resolveReferences.isEnabled) return Span.NONE
+        val event = ResolveReferencesEvent()
+        event.unresolvedBefore = unresolved
+        return EventSpan(event) { unresolvedAfter = it }
+    }
+
+    override fun dslApply(file: () -> String, module: String): Span {
+        if (!dslApply.isEnabled) return Span.NONE
+        val event = DslApplyEvent()
+        event.file = file()
+        event.module = module
+        return EventSpan(event) {}
+    }
+
+    override fun dslSave(file: () -> String): Span {
+        if (!dslSave.isEnabled) return Span.NONE
+        val event = DslSaveEvent()
+        event.file = file()
+        return EventSpan(event) {}
+    }
+
+    override fun addDependency(file: () -> String, artifact: () -> String, strategy: String): Span {
+        if (!addDependency.isEnabled) return Span.NONE
+        val event = AddDependencyEvent()
+        event.file = file()
+        event.artifact = artifact()
+        event.strategy = strategy
+        return EventSpan(event) { statements = it }
+    }
+
+    private class EventSpan<E : Event>(private val event: E, private val count: E.(Int) -> Unit) : Span() {
+
+        private val isEnded = AtomicBoolean()
+
+        override val isRecording = true
+
+        init {
+            event.begin()
+        }
+
+        override fun end() {
+            if (isEnded.compareAndSet(false, true)) {
+                event.commit()
+            }
+        }
+
+        override fun end(count: Int) {
+            if (isEnded.compareAndSet(false, true)) {
+                event.count(count)
+                event.commit()
+            }
+        }
+    }
+}
+
+private const val CATEGORY = "OK, Gradle!"
+
+@Name("me.scana.okgradle.RepositorySearch")
+@Label("Repository Search")
+@Category(CATEGORY, "Search")
+@StackTrace(false)
+internal class RepositorySearchEvent : Event() {
+    @JvmField @Label("Repository") var repository: String? = null
+    @JvmField @Label("Query Length") var queryLength: Int = 0
+    @JvmField @Label("Results") var results: Int = 0
+}
+
+@Name("me.scana.okgradle.NetworkCall")
+@Label("Network Call")
+@Description("Sending a request and reading its response body")
+@Category(CATEGORY, "Search")
+@StackTrace(false)
+internal class NetworkCallEvent : Event() {
+    @JvmField @Label("Method") var method: String? = null
+    @JvmField @Label("URL") var url: String? = null
+    @JvmField @Label("Status") var status: Int = 0
+}
+
+@Name("me.scana.okgradle.DslParse")
+@Label("Build File Parse")
+@Category(CATEGORY, "Build Files")
+internal class DslParseEvent : Event() {
+    @JvmField @Label("File") var file: String? = null
+    @JvmField @Label("Module") var module: String? = null
+    @JvmField @Label("Reparse") var isReparse: Boolean = false
+    @JvmField @Label("Elements") var elements: Int = 0
+}
+
+@Name("me.scana.okgradle.ResolveReferences")
+@Label("Reference Resolution")
+@Description("Resolving references between build file elements")
+@Category(CATEGORY, "Build Files")
+internal class ResolveReferencesEvent : Event() {
+    @JvmField @Label("Unresolved Before") var unresolvedBefore: Int = 0
+    @JvmField @Label("Unresolved After") var unresolvedAfter: Int = 0
+}
+
+@Name("me.scana.okgradle.DslApply")
+@Label("Build File Apply")
+@Description("Writing model changes back to the PSI")
+@Category(CATEGORY, "Build Files")
+internal class DslApplyEvent : Event() {
+    @JvmField @Label("File") var file: String? = null
+    @JvmField @Label("Module") var module: String? = null
+}
+
+@Name("me.scana.okgradle.DslSave")
+@Label("Build File Save")
+@Category(CATEGORY, "Build Files")
+internal class DslSaveEvent : Event() {
+    @JvmField @Label("File") var file: String? = null
+}
+
+@Name("me.scana.okgradle.AddDependency")
+@Label("Add Dependency")
+@Category(CATEGORY, "Build Files")
+internal class AddDependencyEvent : Event() {
+    @JvmField @Label("File") var file: String? = null
+    @JvmField @Label("Artifact") var artifact: String? = null
+    @JvmField @Label("Strategy") var strategy: String? = null
+    @JvmField @Label("Statements") var statements: Int = 0
+}
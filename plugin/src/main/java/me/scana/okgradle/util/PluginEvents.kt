@@ -0,0 +1,78 @@
+package me.scana.okgradle.util
+
+/**
+ * JDK Flight Recorder events for the plugin's hot paths, so a recording of a slow IDE shows which of them were running.
+ * Record with `jfr/ok-gradle.jfc` from the plugin jar to see them with their thresholds set to zero.
+ *
+ * JFR types are only touched by [JfrEvents], which is never loaded on a JVM without Flight Recorder.
+ * While an event is not being recorded, starting it returns [Span.NONE] and allocates nothing. Attributes which take work
+ * to compute are passed as functions and counts are only worth computing while [Span.isRecording], so neither costs
+ * anything then.
+ */
+object PluginEvents {
+
+    private val events: Events = try {
+        Class.forName("jdk.jfr.FlightRecorder")
+        JfrEvents()
+    } catch (exception: ClassNotFoundException) {
+        Events()
+    } catch (error: LinkageError) {
+        Events()
+    }
+
+    /** Ends with the number of artifacts found. */
+    @JvmStatic
+    fun repositorySearch(repository: String, queryLength: Int) = events.repositorySearch(repository, queryLength)
+
+    /** Ends with the HTTP status code. */
+    @JvmStatic
+    fun networkCall(method: String, url: String) = events.networkCall(method, url)
+
+    /** Ends with the number of top-level elements. */
+    @JvmStatic
+    fun dslParse(file: () -> String, module: String, isReparse: Boolean) = events.dslParse(file, module, isReparse)
+
+    /** Ends with the number of references still unresolved. */
+    @JvmStatic
+    fun resolveReferences(unresolved: Int) = events.resolveReferences(unresolved)
+
+    @JvmStatic
+    fun dslApply(file: () -> String, module: String) = events.dslApply(file, module)
+
+    @JvmStatic
+    fun dslSave(file: () -> String) = events.dslSave(file)
+
+    /** Ends with the number of dependency statements added. */
+    @JvmStatic
+    fun addDependency(file: () -> String, artifact: () -> String, strategy: String) = events.addDependency(file, artifact, strategy)
+
+    /**
+     * A running phase. Ending it more than once records it once.
+     */
+    abstract class Span {
+        abstract val isRecording: Boolean
+
+        abstract fun end()
+
+        abstract fun end(count: Int)
+
+        companion object {
+            @JvmField
+            val NONE: Span = object : Span() {
+                override val isRecording = false
+                override fun end() = Unit
+                override fun end(count: Int) = Unit
+            }
+        }
+    }
+
+    internal open class Events {
+        open fun repositorySearch(repository: String, queryLength: Int) = Span.NONE
+        open fun networkCall(method: String, url: String) = Span.NONE
+        open fun dslParse(file: () -> String, module: String, isReparse: Boolean) = Span.NONE
+        open fun resolveReferences(unresolved: Int) = Span.NONE
+        open fun dslApply(file: () -> String, module: String) = Span.NONE
+        open fun dslSave(file: () -> String) = Span.NONE
+        open fun addDependency(file: () -> String, artifact: () -> String, strategy: String) = Span.NONE
+    }
+}
@@ -0,0 +1,46 @@
+package me.scana.okgradle.data
+
+import io.reactivex.Single
+import me.scana.okgradle.data.repository.ArtifactRepository
+import me.scana.okgradle.data.repository.SearchResult
+import org.junit.Test
+import kotlin.test.assertEquals
+
+@Suppress("MemberVisibilityCanPrivate")
+class AdaptiveDebounceTest {
+
+    val latency = LatencyTracker()
+    val searchUseCase = SearchArtifactsUseCase(
+            mapOf("Local" to FakeRepository(isLocal = true), "Remote" to FakeRepository(isLocal = false)),
+            minQueryLength = mapOf("Remote" to 3),
+            latency = latency
+    )
+    val debounce = AdaptiveDebounce(searchUseCase)
+
+    @Test
+    fun `searches right away when only local repositories are asked`() {
+        assertEquals(AdaptiveDebounce.LOCAL_DELAY_IN_MILLIS, debounce.delayFor("rx"))
+    }
+
+    @Test
+    fun `uses default delay until latency is known`() {
+        assertEquals(AdaptiveDebounce.DEFAULT_DELAY_IN_MILLIS, debounce.delayFor("retrofit"))
+    }
+
+    @Test
+    fun `follows observed latency within bounds`() {
+        latency.record(600)
+        assertEquals(300L, debounce.delayFor("retrofit"))
+
+        repeat(LatencyTracker.DEFAULT_CAPACITY) { latency.record(100) }
+        assertEquals(AdaptiveDebounce.MIN_DELAY_IN_MILLIS, debounce.delayFor("retrofit"))
+
+        repeat(LatencyTracker.DEFAULT_CAPACITY) { latency.record(5000) }
+        assertEquals(AdaptiveDebounce.MAX_DELAY_IN_MILLIS, debounce.delayFor("retrofit"))
+    }
+
+    class FakeRepository(private val isLocal: Boolean) : ArtifactRepository {
+        override fun search(query: String): Single<SearchResult> = Single.just(SearchResult.Success())
+        override fun isAvailableLocally(query: String) = isLocal
+    }
+}
@@ -0,0 +1,83 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.ArtifactIndex
+import org.junit.Test
+import java.io.File
+import java.nio.ByteBuffer
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class ArtifactIndexTest {
+
+    val artifacts = listOf(
+            Artifact("com.google.android.material", "material", "1.2.1"),
+            Artifact("androidx.appcompat", "appcompat", "1.2.0"),
+            Artifact("androidx.appcompat", "appcompat-resources", "1.2.0"),
+            Artifact("androidx.room", "room-runtime", "2.2.6"),
+            Artifact("androidx.room", "room-runtime", "2.2.5"),
+            Artifact("com.android.tools.build", "gradle", "4.1.1")
+    )
+
+    val index = ArtifactIndex.read(ByteBuffer.wrap(ArtifactIndex.write(artifacts, 1234L)))
+
+    @Test
+    fun `keeps header information`() {
+        assertEquals(1234L, index.createdAt)
+        assertEquals(5, index.size)
+    }
+
+    @Test
+    fun `finds artifacts by substring of coordinates`() {
+        assertEquals(
+                listOf("appcompat", "appcompat-resources"),
+                index.find("compat").map { it.name }
+        )
+        assertEquals(
+                listOf(Artifact("androidx.room", "room-runtime", "2.2.6")),
+                index.find("x.room:room")
+        )
+    }
+
+    @Test
+    fun `finds artifacts by one and two character queries`() {
+        assertEquals(5, index.find("o").size)
+        assertEquals(listOf("gradle"), index.find("dl").map { it.name })
+        assertEquals(listOf("material"), index.find("al").map { it.name })
+    }
+
+    @Test
+    fun `ignores case`() {
+        assertEquals(listOf("material"), index.find("MATERIAL").map { it.name })
+    }
+
+    @Test
+    fun `does not return entries which only contain all trigrams of the query`() {
+        assertTrue(index.find("roomroom").isEmpty())
+        assertTrue(index.find("zzz").isEmpty())
+    }
+
+    @Test
+    fun `keeps the newest version of duplicate artifacts`() {
+        val duplicates = listOf(
+                Artifact("com.squareup.okio", "okio", "2.8.0"),
+                Artifact("com.squareup.okio", "okio", "2.10.0"),
+                Artifact("com.squareup.okio", "okio", "2.9.0")
+        )
+        val index = ArtifactIndex.read(ByteBuffer.wrap(ArtifactIndex.write(duplicates, 1234L)))
+
+        assertEquals(listOf("2.10.0"), index.find("okio").map { it.version })
+    }
+
+    @Test
+    fun `memory-maps index files`() {
+        val file = File.createTempFile("google-index", ".bin")
+        try {
+            file.writeBytes(ArtifactIndex.write(artifacts, 1234L))
+            assertEquals(listOf("gradle"), ArtifactIndex.map(file).find("tools.build").map { it.name })
+        } finally {
+            file.delete()
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.ArtifactSignals
+import me.scana.okgradle.data.repository.SearchResult
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+
+@Suppress("MemberVisibilityCanPrivate")
+class ArtifactRankerTest {
+
+    val now = TimeUnit.DAYS.toMillis(20000)
+    val ranker = ArtifactRanker("retrofit", clock = { now })
+
+    @Test
+    fun `puts exact name matches before partial ones`() {
+        ranker.rank(success("Maven", "com.squareup.retrofit2:retrofit-mock:2.6.0", "me.scana:my-retrofit:1.0", "com.squareup.retrofit2:retrofit:2.6.0"))
+
+        assertEquals(
+                listOf("retrofit", "retrofit-mock", "my-retrofit"),
+                ranker.artifacts().map { it.name }
+        )
+    }
+
+    @Test
+    fun `merges partial results without reordering earlier ones`() {
+        ranker.rank(success("Bintray", "com.infstory:retrofit:2.0.0", "me.scana:my-retrofit:1.0"))
+        val result = ranker.rank(success("JitPack", "com.github.scana:retrofit-extras:1.0")) as SearchResult.Success
+
+        assertEquals(
+                listOf("com.infstory:retrofit", "com.github.scana:retrofit-extras", "me.scana:my-retrofit"),
+                result.artifacts.map { "${it.groupId}:${it.name}" }
+        )
+    }
+
+    @Test
+    fun `prefers more trusted repositories`() {
+        ranker.rank(success("Bintray", "me.scana:retrofit:1.0"))
+        ranker.rank(success("Maven", "com.squareup.retrofit2:retrofit:2.6.0"))
+
+        assertEquals("com.squareup.retrofit2", ranker.artifacts().first().groupId)
+    }
+
+    @Test
+    fun `prefers popular and recently updated artifacts`() {
+        val stale = Artifact("com.squareup.retrofit", "retrofit", "2.0.0-beta2")
+        val fresh = Artifact("com.squareup.retrofit2", "retrofit", "2.6.0")
+        ranker.rank(SearchResult.Success(
+                listOf(stale, fresh),
+                signals = mapOf(
+                        stale to ArtifactSignals(21, now - TimeUnit.DAYS.toMillis(5 * 365)),
+                        fresh to ArtifactSignals(40, now - TimeUnit.DAYS.toMillis(30))
+                ),
+                source = "Maven"
+        ))
+
+        assertEquals(listOf(fresh, stale), ranker.artifacts())
+    }
+
+    @Test
+    fun `keeps one entry per artifact`() {
+        ranker.rank(success("JitPack", "com.squareup.retrofit2:retrofit:2.5.0"))
+        ranker.rank(success("Maven", "com.squareup.retrofit2:retrofit:2.6.0"))
+        ranker.rank(success("Bintray", "com.squareup.retrofit2:retrofit:2.4.0"))
+
+        assertEquals(listOf(Artifact("com.squareup.retrofit2", "retrofit", "2.6.0")), ranker.artifacts())
+    }
+
+    @Test
+    fun `applies version updates in place`() {
+        ranker.rank(success("Google", "com.squareup.retrofit2:retrofit:+", "me.scana:retrofit-extras:1.0"))
+        ranker.rank(SearchResult.VersionUpdate(Artifact("com.squareup.retrofit2", "retrofit", "2.6.0")))
+
+        assertEquals(
+                listOf("2.6.0", "1.0"),
+                ranker.artifacts().map { it.version }
+        )
+    }
+
+    private fun success(source: String, vararg artifactIds: String): SearchResult {
+        val artifacts = artifactIds.map {
+            val (groupId, name, version) = it.split(":")
+            Artifact(groupId, name, version)
+        }
+        return SearchResult.Success(artifacts, source = source)
+    }
+}
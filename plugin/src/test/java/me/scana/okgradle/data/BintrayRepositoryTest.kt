@@ -136,4 +136,27 @@ class BintrayRepositoryTest {
         assertEquals("commons-io", artifact.name)
     }
 
+    @Test
+    fun `skips packages without versions`() {
+        mockOkHttpClient.returnsJson(
+                """
+                    [{
+                        "name": "commons-io:commons-io",
+                        "versions": [],
+                        "latest_version": null
+                    },
+                    {
+                        "name": "org.clojars.amit:commons-io",
+                        "desc": null,
+                        "versions": [
+                            "1.4.0"
+                        ]
+                    }]
+                """.trimIndent()
+        )
+
+        val result = repository.search("commons-io").blockingGet() as SearchResult.Success
+        assertEquals(listOf(Artifact("org.clojars.amit", "commons-io", "1.4.0")), result.artifacts)
+    }
+
 }
\ No newline at end of file
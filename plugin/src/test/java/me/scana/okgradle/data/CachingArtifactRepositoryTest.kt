@@ -0,0 +1,129 @@
+package me.scana.okgradle.data
+
+import io.reactivex.Single
+import me.scana.okgradle.data.repository.*
+import org.junit.Test
+import java.io.IOException
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class CachingArtifactRepositoryTest {
+
+    val artifacts = listOf(
+            Artifact("com.squareup.retrofit2", "retrofit", "2.9.0"),
+            Artifact("com.squareup.retrofit2", "converter-gson", "2.9.0"),
+            Artifact("io.reactivex.rxjava2", "rxjava", "2.2.12")
+    )
+
+    @Test
+    fun `returns cached result for repeated query`() {
+        val delegate = CountingRepository(exhaustive = false)
+        val repository = CachingArtifactRepository(delegate)
+
+        repository.search("retro").blockingGet()
+        val result = repository.search("retro").blockingGet() as SearchResult.Success
+
+        assertEquals(1, delegate.searches)
+        assertEquals(3, result.artifacts.size)
+        assertEquals(CachingArtifactRepository.CacheStats(hits = 1, prefixHits = 0, misses = 1), repository.stats())
+    }
+
+    @Test
+    fun `filters exhaustive result of a shorter query`() {
+        val delegate = CountingRepository(exhaustive = true)
+        val repository = CachingArtifactRepository(delegate)
+
+        repository.search("r").blockingGet()
+        val result = repository.search("rxj").blockingGet() as SearchResult.Success
+
+        assertEquals(1, delegate.searches)
+        assertEquals(listOf("rxjava"), result.artifacts.map { it.name })
+        assertEquals(1, repository.stats().prefixHits)
+    }
+
+    @Test
+    fun `asks delegate when shorter result is not exhaustive`() {
+        val delegate = CountingRepository(exhaustive = false)
+        val repository = CachingArtifactRepository(delegate)
+
+        repository.search("r").blockingGet()
+        repository.search("retrof").blockingGet()
+
+        assertEquals(2, delegate.searches)
+        assertEquals(2, repository.stats().misses)
+    }
+
+    @Test
+    fun `knows which queries it can answer locally`() {
+        val repository = CachingArtifactRepository(CountingRepository(exhaustive = true))
+
+        repository.search("r").blockingGet()
+
+        assertTrue(repository.isAvailableLocally("r"))
+        assertTrue(repository.isAvailableLocally("rxj"))
+        assertFalse(repository.isAvailableLocally("io"))
+    }
+
+    @Test
+    fun `evicts least recently used queries`() {
+        val delegate = CountingRepository(exhaustive = false)
+        val repository = CachingArtifactRepository(delegate, maxEntries = 2)
+
+        repository.search("one").blockingGet()
+        repository.search("two").blockingGet()
+        repository.search("one").blockingGet()
+        repository.search("three").blockingGet()
+        repository.search("one").blockingGet()
+        repository.search("two").blockingGet()
+
+        assertEquals(4, delegate.searches)
+    }
+
+    @Test
+    fun `expires cached results`() {
+        var now = 0L
+        val delegate = CountingRepository(exhaustive = true)
+        val repository = CachingArtifactRepository(delegate, timeToLiveInMillis = 1_000, clock = { now })
+
+        repository.search("r").blockingGet()
+        now = 999
+        repository.search("r").blockingGet()
+        repository.search("rx").blockingGet()
+        assertEquals(1, delegate.searches)
+
+        now = 1_000
+        assertFalse(repository.isAvailableLocally("rxj"))
+        repository.search("rx").blockingGet()
+        repository.search("r").blockingGet()
+        assertEquals(3, delegate.searches)
+    }
+
+    @Test
+    fun `does not cache errors`() {
+        val delegate = object : ArtifactRepository {
+            var searches = 0
+            override fun search(query: String): Single<SearchResult> {
+                searches++
+                return Single.just(SearchResult.Error(IOException()))
+            }
+        }
+        val repository = CachingArtifactRepository(delegate)
+
+        repository.search("retro").blockingGet()
+        repository.search("retro").blockingGet()
+
+        assertEquals(2, delegate.searches)
+    }
+
+    inner class CountingRepository(private val exhaustive: Boolean) : ArtifactRepository {
+
+        var searches = 0
+
+        override fun search(query: String): Single<SearchResult> {
+            searches++
+            return Single.just(SearchResult.Success(artifacts, isExhaustive = exhaustive))
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.Schedulers
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.FuzzyArtifactRepository
+import me.scana.okgradle.data.repository.ArtifactIndex
+import me.scana.okgradle.data.repository.SearchResult
+import org.junit.Test
+import java.nio.ByteBuffer
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class FuzzyArtifactRepositoryTest {
+
+    val material = Artifact("com.google.android.material", "material", "1.2.1")
+    val appcompat = Artifact("androidx.appcompat", "appcompat", "1.2.0")
+
+    var index = index(material)
+    val matcher = FuzzyMatcher()
+    val repository = FuzzyArtifactRepository(matcher, listOf({ index }), Schedulers.trampoline())
+
+    @Test
+    fun `suggests names from indexes`() {
+        val result = repository.search("matrial").blockingGet() as SearchResult.Success
+
+        assertEquals("material", result.suggestion)
+        assertEquals(listOf(material), result.artifacts)
+    }
+
+    @Test
+    fun `reads replaced indexes`() {
+        repository.search("material").blockingGet()
+        index = index(material, appcompat)
+
+        val result = repository.search("apcompat").blockingGet() as SearchResult.Success
+
+        assertEquals("appcompat", result.suggestion)
+    }
+
+    @Test
+    fun `returns nothing for correctly spelled queries`() {
+        val result = repository.search("mater").blockingGet() as SearchResult.Success
+
+        assertNull(result.suggestion)
+        assertTrue(result.artifacts.isEmpty())
+    }
+
+    private fun index(vararg artifacts: Artifact) = ArtifactIndex.read(ByteBuffer.wrap(ArtifactIndex.write(artifacts.toList(), 0L)))
+}
@@ -0,0 +1,69 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@Suppress("MemberVisibilityCanPrivate")
+class FuzzyMatcherTest {
+
+    val retrofit = Artifact("com.squareup.retrofit2", "retrofit", "2.9.0")
+    val converter = Artifact("com.squareup.retrofit2", "converter-gson", "2.9.0")
+    val lifecycle = Artifact("androidx.lifecycle", "lifecycle-runtime-ktx", "2.2.0")
+    val okhttp = Artifact("com.squareup.okhttp3", "okhttp", "4.9.0")
+
+    val matcher = FuzzyMatcher().apply { addAll(listOf(retrofit, converter, lifecycle, okhttp)) }
+
+    @Test
+    fun `suggests names for misspelled words`() {
+        assertEquals("retrofit", matcher.suggest("retorfit")?.query)
+        assertEquals("lifecycle runtime", matcher.suggest("lifecyle runtime")?.query)
+        assertEquals("com.squareup.retrofit2", matcher.suggest("com.sqaureup.retrofit2")?.query)
+    }
+
+    @Test
+    fun `does not suggest anything for known or unfinished words`() {
+        assertNull(matcher.suggest("retrofit"))
+        assertNull(matcher.suggest("retro"))
+        assertNull(matcher.suggest("lifecycle-run"))
+        assertNull(matcher.suggest("com.squ"))
+    }
+
+    @Test
+    fun `does not correct short words or words too far from any name`() {
+        assertEquals("okhttp", matcher.suggest("okhtp")?.query)
+        assertNull(matcher.suggest("okhtx"))
+        assertNull(matcher.suggest("rtf"))
+        assertNull(matcher.suggest("picasso"))
+    }
+
+    @Test
+    fun `finds artifacts the suggestion would find`() {
+        assertEquals(listOf(retrofit), matcher.suggest("retorfit")?.artifacts)
+        assertEquals(listOf(retrofit, converter), matcher.suggest("com.sqaureup.retrofit2")?.artifacts)
+    }
+
+    @Test
+    fun `keeps terms added in separate batches sorted`() {
+        matcher.addAll(listOf(Artifact("io.reactivex.rxjava2", "rxandroid", "2.1.1")))
+        matcher.addAll(listOf(Artifact("com.jakewharton.timber", "timber", "4.7.1"), retrofit))
+
+        assertEquals(15, matcher.size())
+        assertEquals("timber", matcher.suggest("timbr")?.query)
+        assertEquals("rxandroid", matcher.suggest("rxandorid")?.query)
+        assertEquals("retrofit", matcher.suggest("retorfit")?.query)
+        assertNull(matcher.suggest("timber"))
+    }
+
+    @Test
+    fun `prefers names shared by more artifacts`() {
+        matcher.addAll(listOf(
+                Artifact("androidx.room", "room-runtime", "2.2.6"),
+                Artifact("androidx.work", "work-runtime", "2.4.0"),
+                Artifact("me.scana", "runtima", "1.0")
+        ))
+
+        assertEquals("runtime", matcher.suggest("runtimx")?.query)
+    }
+}
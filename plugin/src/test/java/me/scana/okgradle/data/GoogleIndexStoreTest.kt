@@ -0,0 +1,56 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.Schedulers
+import me.scana.okgradle.data.repository.*
+import okhttp3.OkHttpClient
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class GoogleIndexStoreTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    val requests = AtomicInteger()
+
+    val okHttpClient: OkHttpClient = OkHttpClient.Builder()
+            .addInterceptor {
+                requests.incrementAndGet()
+                throw IOException("offline")
+            }
+            .build()
+
+    var now = TimeUnit.DAYS.toMillis(30)
+
+    val indexStore by lazy {
+        GoogleIndexStore(
+                directory = folder.root,
+                fetcher = GoogleMavenIndexFetcher(NetworkClient(okHttpClient)),
+                scheduler = Schedulers.trampoline(),
+                bundledIndex = { ArtifactIndex.write(listOf(Artifact("androidx.core", "core", "1.0.0")), 0).inputStream() },
+                clock = { now }
+        )
+    }
+
+    @Test
+    fun `waits before retrying a failed update`() {
+        indexStore.index()
+        val firstAttempt = requests.get()
+        assertTrue(firstAttempt > 0)
+
+        now += TimeUnit.MINUTES.toMillis(59)
+        indexStore.index()
+        assertEquals(firstAttempt, requests.get())
+
+        now += TimeUnit.MINUTES.toMillis(1)
+        indexStore.index()
+        assertTrue(requests.get() > firstAttempt)
+    }
+}
@@ -0,0 +1,66 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.Schedulers
+import me.scana.okgradle.data.repository.*
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class GoogleRepositoryTest {
+
+    val mockOkHttpClient = MockOkHttpClient()
+
+    val networkClient = NetworkClient(mockOkHttpClient.instance())
+
+    val artifacts = (1..15).map { Artifact("androidx.lifecycle", "lifecycle-$it", "+") }
+
+    val indexStore = GoogleIndexStore(
+            directory = null,
+            fetcher = GoogleMavenIndexFetcher(networkClient),
+            scheduler = Schedulers.trampoline(),
+            bundledIndex = { ArtifactIndex.write(artifacts, System.currentTimeMillis()).inputStream() }
+    )
+
+    val repository = GoogleRepository(networkClient, indexStore, Schedulers.trampoline())
+
+    @Test
+    fun `returns indexed artifacts without network requests`() {
+        val result = repository.search("lifecycle").blockingGet() as SearchResult.Success
+
+        assertEquals(15, result.artifacts.size)
+        assertTrue(result.artifacts.all { it.version == "+" })
+        assertEquals(null, mockOkHttpClient.recentRequest())
+    }
+
+    @Test
+    fun `returns empty result on empty query`() {
+        val result = repository.search("").blockingGet() as SearchResult.Success
+        assertTrue(result.artifacts.isEmpty())
+    }
+
+    @Test
+    fun `resolves versions of every artifact`() {
+        mockOkHttpClient.returnsXml(
+                """<?xml version="1.0" encoding="UTF-8"?>
+                <metadata>
+                  <groupId>androidx.lifecycle</groupId>
+                  <artifactId>lifecycle-1</artifactId>
+                  <versioning>
+                    <latest>2.3.0-rc01</latest>
+                    <release>2.2.0</release>
+                  </versioning>
+                </metadata>
+                """.trimIndent()
+        )
+
+        val resolved = repository.resolveVersions(artifacts).toList().blockingGet()
+
+        assertEquals(15, resolved.size)
+        assertTrue(resolved.all { it.version == "2.2.0" })
+        assertEquals(
+                "https://dl.google.com/dl/android/maven2/androidx/lifecycle/lifecycle-15/maven-metadata.xml",
+                mockOkHttpClient.recentRequest()?.url?.toString()
+        )
+    }
+}
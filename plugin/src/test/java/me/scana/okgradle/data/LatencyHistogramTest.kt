@@ -0,0 +1,46 @@
+package me.scana.okgradle.data
+
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class LatencyHistogramTest {
+
+    val histogram = LatencyHistogram()
+
+    @Test
+    fun `is empty until something is recorded`() {
+        assertEquals(0, histogram.count)
+        assertEquals(0, histogram.percentile(99.0))
+    }
+
+    @Test
+    fun `keeps small values exact`() {
+        listOf(1L, 2L, 3L, 20L).forEach { histogram.record(it, TimeUnit.MICROSECONDS) }
+
+        assertEquals(2, histogram.percentile(50.0))
+        assertEquals(20, histogram.percentile(100.0))
+        assertEquals(26, histogram.sum)
+    }
+
+    @Test
+    fun `keeps large values within a few percent`() {
+        (1..1000).forEach { histogram.record(it.toLong(), TimeUnit.MILLISECONDS) }
+
+        listOf(50.0, 90.0, 99.0).forEach { percentile ->
+            val expected = percentile * 10_000
+            val actual = histogram.percentile(percentile)
+            assertTrue(actual >= expected && actual <= expected * 1.07, "p$percentile was $actual")
+        }
+    }
+
+    @Test
+    fun `counts values up to a bound`() {
+        listOf(5L, 10L, 250L, 2_000L).forEach { histogram.record(it, TimeUnit.MILLISECONDS) }
+
+        assertEquals(2, histogram.countAtMost(TimeUnit.MILLISECONDS.toMicros(100)))
+        assertEquals(4, histogram.countAtMost(TimeUnit.SECONDS.toMicros(10)))
+    }
+}
@@ -0,0 +1,98 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.LocalArtifactScanner
+import org.junit.After
+import org.junit.Test
+import java.io.File
+import java.nio.file.Files
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class LocalArtifactScannerTest {
+
+    val root: File = Files.createTempDirectory("local-caches").toFile()
+    val gradleCache = File(root, "files-2.1")
+    val mavenRepository = File(root, "m2")
+    val stateFile = File(root, "state.bin")
+
+    @After
+    fun tearDown() {
+        root.deleteRecursively()
+    }
+
+    @Test
+    fun `finds newest versions in the Gradle cache`() {
+        gradleArtifact("com.squareup.retrofit2", "retrofit", "2.9.0")
+        gradleArtifact("com.squareup.retrofit2", "retrofit", "2.10.0")
+        gradleArtifact("com.squareup.okio", "okio", "2.8.0")
+
+        val artifacts = scanner().scan()
+
+        assertEquals(
+                setOf(Artifact("com.squareup.retrofit2", "retrofit", "2.10.0"), Artifact("com.squareup.okio", "okio", "2.8.0")),
+                artifacts.toSet()
+        )
+    }
+
+    @Test
+    fun `finds artifacts in the Maven repository`() {
+        mavenArtifact("org.jetbrains.kotlin", "kotlin-stdlib", "1.4.21")
+        mavenArtifact("org.jetbrains.kotlin", "kotlin-stdlib", "1.4.20")
+        File(mavenRepository, "org/jetbrains/kotlin/kotlin-stdlib/1.5.0").mkdirs()
+
+        val artifacts = scanner().scan()
+
+        assertEquals(listOf(Artifact("org.jetbrains.kotlin", "kotlin-stdlib", "1.4.21")), artifacts)
+    }
+
+    @Test
+    fun `lists only directories modified since the previous scan`() {
+        gradleArtifact("com.squareup.retrofit2", "retrofit", "2.9.0")
+        gradleArtifact("com.squareup.okio", "okio", "2.8.0")
+        settle()
+        LocalArtifactScanner(gradleCache, null, stateFile).scan()
+
+        gradleArtifact("com.squareup.okio", "okio", "2.9.0")
+        val scanner = LocalArtifactScanner(gradleCache, null, stateFile)
+        val artifacts = scanner.scan()
+
+        assertTrue(Artifact("com.squareup.okio", "okio", "2.9.0") in artifacts)
+        assertEquals(LocalArtifactScanner.ScanStats(listedDirectories = 1, reusedListings = 4), scanner.stats())
+    }
+
+    @Test
+    fun `lists every directory once per scan`() {
+        mavenArtifact("com.example", "library", "1.0.0")
+
+        val scanner = LocalArtifactScanner(null, mavenRepository, null)
+        scanner.scan()
+
+        assertEquals(LocalArtifactScanner.ScanStats(listedDirectories = 5, reusedListings = 0), scanner.stats())
+    }
+
+    private fun scanner() = LocalArtifactScanner(gradleCache, mavenRepository, stateFile)
+
+    private fun gradleArtifact(groupId: String, name: String, version: String) {
+        File(gradleCache, "$groupId/$name/$version/0a1b2c/$name-$version.jar").apply {
+            parentFile.mkdirs()
+            writeText("")
+        }
+    }
+
+    private fun mavenArtifact(groupId: String, name: String, version: String) {
+        File(mavenRepository, "${groupId.replace('.', '/')}/$name/$version/$name-$version.pom").apply {
+            parentFile.mkdirs()
+            writeText("")
+        }
+    }
+
+    /**
+     * Moves every modification into the past, so listings taken from now on are trusted.
+     */
+    private fun settle() {
+        val past = System.currentTimeMillis() - 60_000
+        root.walkTopDown().forEach { it.setLastModified(past) }
+    }
+}
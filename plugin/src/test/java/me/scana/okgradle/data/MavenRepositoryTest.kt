@@ -230,6 +230,7 @@ class MavenRepositoryTest {
         assertEquals("2.0.0-beta2", artifact.version)
         assertEquals("com.squareup.retrofit", artifact.groupId)
         assertEquals("retrofit", artifact.name)
+        assertEquals(ArtifactSignals(21, 1443453385000), result.signals[artifact])
     }
 
 }
\ No newline at end of file
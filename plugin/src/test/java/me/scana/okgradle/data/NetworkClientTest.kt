@@ -0,0 +1,115 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.Schedulers
+import me.scana.okgradle.data.repository.NetworkClient
+import me.scana.okgradle.data.repository.NetworkResult
+import me.scana.okgradle.data.repository.RepositoryPolicy
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.ResponseBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.junit.After
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+
+@Suppress("MemberVisibilityCanPrivate")
+class NetworkClientTest {
+
+    val server = MockWebServer().apply { start() }
+    val okHttpClient = OkHttpClient()
+    val networkClient = NetworkClient(okHttpClient)
+    val readString: ResponseBody.() -> String = { string() }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `counts completed calls`() {
+        server.enqueue(MockResponse().setBody("retrofit"))
+
+        val result = networkClient.call(request()) { string() }.blockingGet()
+
+        assertEquals(NetworkResult.Success("retrofit"), result)
+        assertEquals(NetworkClient.RequestStats(completed = 1, cancelled = 0), networkClient.stats())
+    }
+
+    @Test
+    fun `cancels the call on dispose`() {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE))
+
+        val observer = networkClient.call(request()) { string() }
+                .subscribeOn(Schedulers.io())
+                .test()
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS))
+        observer.dispose()
+
+        awaitNoRunningCalls()
+        observer.assertNoValues()
+        assertEquals(NetworkClient.RequestStats(completed = 0, cancelled = 1), networkClient.stats())
+    }
+
+    @Test
+    fun `shares concurrent identical calls`() {
+        server.enqueue(MockResponse().setBody("retrofit").setBodyDelay(200, TimeUnit.MILLISECONDS))
+
+        val first = networkClient.call(request(), readString).subscribeOn(Schedulers.io()).test()
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS))
+        val second = networkClient.call(request(), readString).test()
+
+        first.awaitTerminalEvent(5, TimeUnit.SECONDS)
+        second.awaitTerminalEvent(5, TimeUnit.SECONDS)
+        first.assertValue(NetworkResult.Success("retrofit"))
+        second.assertValue(NetworkResult.Success("retrofit"))
+        assertEquals(1, server.requestCount)
+        assertEquals(NetworkClient.RequestStats(completed = 1, cancelled = 0, coalesced = 1), networkClient.stats())
+    }
+
+    @Test
+    fun `keeps shared call running while anyone waits for it`() {
+        server.enqueue(MockResponse().setBody("retrofit").setBodyDelay(200, TimeUnit.MILLISECONDS))
+
+        val first = networkClient.call(request(), readString).subscribeOn(Schedulers.io()).test()
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS))
+        val second = networkClient.call(request(), readString).test()
+        first.dispose()
+
+        second.awaitTerminalEvent(5, TimeUnit.SECONDS)
+        second.assertValue(NetworkResult.Success("retrofit"))
+        assertEquals(0, networkClient.stats().cancelled)
+    }
+
+    @Test
+    fun `hedges calls slower than usual`() {
+        val policy = RepositoryPolicy(hedgePercentile = 100, minSamplesForHedging = 3)
+        val hedgingClient = NetworkClient(okHttpClient, policy, Schedulers.io(), Schedulers.computation())
+        repeat(3) { index ->
+            server.enqueue(MockResponse().setBody("warm-up"))
+            hedgingClient.call(request("/warm-up/$index")) { string() }.blockingGet()
+        }
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE))
+        server.enqueue(MockResponse().setBody("hedge"))
+
+        val result = hedgingClient.call(request()) { string() }.timeout(5, TimeUnit.SECONDS).blockingGet()
+
+        assertEquals(NetworkResult.Success("hedge"), result)
+        assertEquals(1, hedgingClient.stats().hedged)
+        awaitNoRunningCalls()
+    }
+
+    private fun request(path: String = "/search") = Request.Builder().url(server.url(path)).build()
+
+
+    private fun awaitNoRunningCalls() {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (okHttpClient.dispatcher.runningCallsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10)
+        }
+        assertEquals(0, okHttpClient.dispatcher.runningCallsCount())
+    }
+}
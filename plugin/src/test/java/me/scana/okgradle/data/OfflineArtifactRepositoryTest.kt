@@ -0,0 +1,84 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.Schedulers
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.LocalArtifactScanner
+import me.scana.okgradle.data.repository.OfflineArtifactRepository
+import me.scana.okgradle.data.repository.SearchResult
+import org.junit.After
+import org.junit.Test
+import java.io.File
+import java.nio.file.Files
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class OfflineArtifactRepositoryTest {
+
+    val root: File = Files.createTempDirectory("offline").toFile()
+    val gradleCache = File(root, "files-2.1")
+    val indexFile = File(root, "offline-index.bin")
+
+    @After
+    fun tearDown() {
+        root.deleteRecursively()
+    }
+
+    @Test
+    fun `finds cached artifacts once scanned`() {
+        File(gradleCache, "com.squareup.retrofit2/retrofit/2.9.0/0a1b2c/retrofit-2.9.0.jar").apply {
+            parentFile.mkdirs()
+            writeText("")
+        }
+        val repository = repository()
+
+        repository.search("retrofit").blockingGet()
+        val result = repository.search("retrofit").blockingGet() as SearchResult.Success
+
+        assertEquals(listOf(Artifact("com.squareup.retrofit2", "retrofit", "2.9.0")), result.artifacts)
+        assertTrue(result.isExhaustive)
+        assertTrue(repository.isAvailableLocally("retrofit"))
+    }
+
+    @Test
+    fun `serves the persisted index right after a restart`() {
+        File(gradleCache, "com.squareup.okio/okio/2.8.0/0a1b2c/okio-2.8.0.jar").apply {
+            parentFile.mkdirs()
+            writeText("")
+        }
+        repository().index()
+
+        val restarted = OfflineArtifactRepository(LocalArtifactScanner(null, null, null), indexFile, Schedulers.trampoline())
+        val result = restarted.search("okio").blockingGet() as SearchResult.Success
+
+        assertEquals(listOf(Artifact("com.squareup.okio", "okio", "2.8.0")), result.artifacts)
+    }
+
+    @Test
+    fun `scans the caches again once an hour`() {
+        var now = TimeUnit.DAYS.toMillis(30)
+        val scanner = LocalArtifactScanner(gradleCache, null, File(root, "state.bin"))
+        val repository = OfflineArtifactRepository(scanner, indexFile, Schedulers.trampoline(), clock = { now })
+        gradleCache.mkdirs()
+
+        repository.index()
+        val scanned = scanner.stats()
+
+        now += TimeUnit.MINUTES.toMillis(59)
+        repository.index()
+        assertEquals(scanned, scanner.stats())
+
+        now += TimeUnit.MINUTES.toMillis(2)
+        repository.index()
+        assertTrue(scanner.stats() != scanned)
+    }
+
+    private fun repository(): OfflineArtifactRepository {
+        return OfflineArtifactRepository(
+                LocalArtifactScanner(gradleCache, null, File(root, "state.bin")),
+                indexFile,
+                Schedulers.trampoline()
+        )
+    }
+}
@@ -0,0 +1,110 @@
+package me.scana.okgradle.data
+
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import me.scana.okgradle.data.repository.*
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class ResilientArtifactRepositoryTest {
+
+    val scheduler = TestScheduler()
+    val policy = RepositoryPolicy(
+            callTimeoutInMillis = 1_000,
+            failureThreshold = 2,
+            coolDownInMillis = 10_000
+    )
+
+    @Test
+    fun `skips repository after consecutive failures`() {
+        val delegate = ScriptedRepository(scheduler)
+        val repository = ResilientArtifactRepository(delegate, policy, scheduler)
+        delegate.fails = true
+
+        search(repository)
+        assertEquals(RepositoryHealth.DEGRADED, repository.health())
+        search(repository)
+        assertEquals(RepositoryHealth.UNAVAILABLE, repository.health())
+
+        val result = search(repository)
+        assertEquals(2, delegate.searches)
+        assertTrue((result.values().single() as SearchResult.Success).artifacts.isEmpty())
+        assertEquals(1, repository.skippedRequests())
+    }
+
+    @Test
+    fun `probes repository again after cool-down`() {
+        val delegate = ScriptedRepository(scheduler)
+        val repository = ResilientArtifactRepository(delegate, policy, scheduler)
+        delegate.fails = true
+        search(repository)
+        search(repository)
+
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+        search(repository)
+        assertEquals(3, delegate.searches)
+        assertEquals(RepositoryHealth.UNAVAILABLE, repository.health())
+
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+        delegate.fails = false
+        search(repository)
+        assertEquals(4, delegate.searches)
+        assertEquals(RepositoryHealth.HEALTHY, repository.health())
+    }
+
+    @Test
+    fun `fails searches slower than the deadline`() {
+        val delegate = ScriptedRepository(scheduler, 5_000)
+        val repository = ResilientArtifactRepository(delegate, policy, scheduler)
+
+        val observer = repository.search("retrofit").test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        observer.assertError(TimeoutException::class.java)
+        assertEquals(RepositoryHealth.DEGRADED, repository.health())
+    }
+
+    @Test
+    fun `does not guard local lookups`() {
+        val delegate = ScriptedRepository(scheduler, isLocal = true)
+        val repository = ResilientArtifactRepository(delegate, policy, scheduler)
+        delegate.fails = true
+
+        repeat(3) { search(repository) }
+
+        assertEquals(3, delegate.searches)
+        assertEquals(RepositoryHealth.HEALTHY, repository.health())
+    }
+
+    private fun search(repository: ArtifactRepository) = repository.search("retrofit").test().also {
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+    }
+
+    class ScriptedRepository(
+            private val scheduler: TestScheduler,
+            private vararg val delaysInMillis: Long,
+            private val isLocal: Boolean = false
+    ) : ArtifactRepository {
+
+        var searches = 0
+        var fails = false
+
+        override fun search(query: String): Single<SearchResult> {
+            searches++
+            val delay = delaysInMillis.getOrElse(searches - 1) { 0 }
+            val result = if (fails) {
+                SearchResult.Error(IOException("down"))
+            } else {
+                SearchResult.Success(listOf(Artifact("me.scana", searches.toString(), "1.0")))
+            }
+            return Single.just(result).delay(delay, TimeUnit.MILLISECONDS, scheduler)
+        }
+
+        override fun isAvailableLocally(query: String) = isLocal
+    }
+}
@@ -0,0 +1,117 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.ResponseCacheInterceptor
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Test
+import java.nio.file.Files
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+@Suppress("MemberVisibilityCanPrivate")
+class ResponseCacheInterceptorTest {
+
+    val server = MockWebServer().apply { start() }
+    val cache = Cache(Files.createTempDirectory("http-cache").toFile(), 1024 * 1024)
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        cache.delete()
+    }
+
+    @Test
+    fun `serves repeated requests from cache`() {
+        val okHttpClient = client(mapOf(server.hostName to 60L))
+        server.enqueue(response("retrofit"))
+
+        okHttpClient.get("/search?q=retrofit")
+        val (response, body) = okHttpClient.get("/search?q=retrofit")
+
+        assertEquals(1, server.requestCount)
+        assertNotNull(response.cacheResponse)
+        assertNull(response.networkResponse)
+        assertEquals("retrofit", body)
+    }
+
+    @Test
+    fun `caches every query separately`() {
+        val okHttpClient = client(mapOf(server.hostName to 60L))
+        server.enqueue(response("retrofit"))
+        server.enqueue(response("okhttp"))
+
+        okHttpClient.get("/search?q=retrofit")
+        val (_, body) = okHttpClient.get("/search?q=okhttp")
+
+        assertEquals(2, server.requestCount)
+        assertEquals("okhttp", body)
+    }
+
+    @Test
+    fun `does not cache other hosts`() {
+        val okHttpClient = client(mapOf("search.maven.org" to 60L))
+        server.enqueue(response("retrofit"))
+        server.enqueue(response("retrofit"))
+
+        okHttpClient.get("/search?q=retrofit")
+        okHttpClient.get("/search?q=retrofit")
+
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun `revalidates expired responses`() {
+        val okHttpClient = client(mapOf(server.hostName to 0L))
+        server.enqueue(response("retrofit"))
+        server.enqueue(MockResponse().setResponseCode(304))
+
+        okHttpClient.get("/search?q=retrofit")
+        val (response, body) = okHttpClient.get("/search?q=retrofit")
+
+        server.takeRequest()
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"))
+        assertNotNull(response.cacheResponse)
+        assertEquals("retrofit", body)
+    }
+
+    @Test
+    fun `keeps revalidated responses cacheable`() {
+        server.enqueue(response("retrofit"))
+        server.enqueue(MockResponse().setResponseCode(304).setHeader("Cache-Control", "no-cache, max-age=0"))
+
+        client(mapOf(server.hostName to 0L)).get("/search?q=retrofit")
+        val okHttpClient = client(mapOf(server.hostName to 60L))
+        okHttpClient.get("/search?q=retrofit")
+        val (response, body) = okHttpClient.get("/search?q=retrofit")
+
+        assertEquals(2, server.requestCount)
+        assertNotNull(response.cacheResponse)
+        assertNull(response.networkResponse)
+        assertEquals("retrofit", body)
+    }
+
+    private fun client(timeToLive: Map<String, Long>): OkHttpClient {
+        return OkHttpClient.Builder()
+                .cache(cache)
+                .addNetworkInterceptor(ResponseCacheInterceptor(timeToLive))
+                .build()
+    }
+
+    private fun response(body: String): MockResponse {
+        return MockResponse()
+                .setHeader("Cache-Control", "no-cache")
+                .setHeader("ETag", "\"v1\"")
+                .setBody(body)
+    }
+
+    private fun OkHttpClient.get(path: String): Pair<Response, String> {
+        val response = newCall(Request.Builder().url(server.url(path)).build()).execute()
+        return Pair(response, response.body!!.use { it.string() })
+    }
+}
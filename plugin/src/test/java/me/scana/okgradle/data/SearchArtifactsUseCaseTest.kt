@@ -1,65 +1,284 @@
 package me.scana.okgradle.data
 
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.ArtifactRepository
+import me.scana.okgradle.data.repository.ArtifactSearchException
+import me.scana.okgradle.data.repository.SearchResult
+import me.scana.okgradle.data.repository.VersionResolver
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
 class SearchArtifactsUseCaseTest {
 
-  /*  @Test
-    fun `returns first artifact is available`() {
-        val repositories = listOf(
-                WithResultArtifactRepository("me.scana.sdk:sdk:1.0.0"),
-                WithResultArtifactRepository("org.scana.smth:1.0.0")
+    val scheduler = TestScheduler()
+
+    @Test
+    fun `queries all repositories at once`() {
+        val slow = DelayedArtifactRepository(scheduler, 300, "me.scana:slow:1.0")
+        val fast = DelayedArtifactRepository(scheduler, 100, "me.scana:fast:1.0")
+        val interactor = SearchArtifactsUseCase(mapOf("Slow" to slow, "Fast" to fast), schedulers = SearchSchedulers.using(scheduler))
+
+        val observer = interactor.search("scana").test()
+        scheduler.triggerActions()
+
+        assertEquals(1, slow.subscriptions)
+        assertEquals(1, fast.subscriptions)
+
+        scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
+        observer.assertComplete()
+        assertEquals(2, observer.valueCount())
+    }
+
+    @Test
+    fun `emits results in the order of arrival`() {
+        val interactor = SearchArtifactsUseCase(
+                mapOf(
+                        "Slow" to DelayedArtifactRepository(scheduler, 300, "me.scana:slow:1.0"),
+                        "Fast" to DelayedArtifactRepository(scheduler, 100, "me.scana:fast:1.0")
+                ),
+                schedulers = SearchSchedulers.using(scheduler)
         )
-        val interactor = SearchArtifactsUseCase(repositories)
 
-        runBlocking {
-            val result = interactor.search("scana")
-            //assertEquals("me.scana.sdk:sdk:1.0.0", result.artifact)
-        }
+        val observer = interactor.search("scana").test()
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        observer.assertValueCount(1)
+        assertEquals("fast", (observer.values()[0] as SearchResult.Success).artifacts[0].name)
+
+        scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS)
+        observer.assertValueCount(2)
+        assertEquals("slow", (observer.values()[1] as SearchResult.Success).artifacts[0].name)
+        observer.assertComplete()
     }
 
     @Test
-    fun `returns last error`() {
-        val repositories = listOf(
-                ErrorArtifactRepository(IOException()),
-                ErrorArtifactRepository(HttpException())
+    fun `wraps errors with repository title`() {
+        val interactor = SearchArtifactsUseCase(
+                mapOf(
+                        "Broken" to ErrorArtifactRepository(IOException("timeout")),
+                        "Fast" to DelayedArtifactRepository(scheduler, 100, "me.scana:fast:1.0")
+                ),
+                schedulers = SearchSchedulers.using(scheduler)
         )
-        val interactor = SearchArtifactsUseCase(repositories)
 
-        runBlocking {
-            val result = interactor.search("scana")
-            //assertTrue(result.error is HttpException)
-        }
+        val observer = interactor.search("scana").test()
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+
+        observer.assertComplete()
+        val error = observer.values().filterIsInstance<SearchResult.Error>().single()
+        assertTrue(error.throwable is ArtifactSearchException)
+        assertEquals("Broken encountered an exception: timeout", error.throwable.message)
     }
 
     @Test
-    fun `returns suggestions`() {
-        val repositories = listOf(
-                NoResultWithSuggestionRepository("maybe_this?"),
-                ErrorArtifactRepository(HttpException())
+    fun `follows results with resolved versions`() {
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Fast" to DelayedArtifactRepository(scheduler, 100, "me.scana:fast:+")),
+                mapOf("Fast" to FixedVersionResolver("2.0")),
+                SearchSchedulers.using(scheduler)
         )
-        val interactor = SearchArtifactsUseCase(repositories)
 
-        runBlocking {
-            val result = interactor.search("scana")
-            *//*assertTrue(result.error is HttpException)
-            assertEquals(result.suggestion, "maybe_this?")*//*
+        val observer = interactor.search("scana").test()
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+
+        observer.assertComplete()
+        observer.assertValueCount(2)
+        assertEquals("+", (observer.values()[0] as SearchResult.Success).artifacts[0].version)
+        assertEquals(Artifact("me.scana", "fast", "2.0"), (observer.values()[1] as SearchResult.VersionUpdate).artifact)
+    }
+
+    @Test
+    fun `resolves versions of the best ranked artifacts only`() {
+        val artifacts = (1..30).map { Artifact("me.scana", "library-$it", "+") } + Artifact("me.scana", "fast", "+")
+        val resolver = RecordingVersionResolver(Observable.empty())
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Fast" to FixedArtifactRepository(artifacts)),
+                mapOf("Fast" to resolver),
+                SearchSchedulers.using(scheduler),
+                maxResolvedVersions = 5
+        )
+
+        interactor.search("fast").test()
+        scheduler.triggerActions()
+
+        assertEquals(5, resolver.artifacts.size)
+        assertEquals(Artifact("me.scana", "fast", "+"), resolver.artifacts[0])
+    }
+
+    @Test
+    fun `stops resolving versions when the search is disposed`() {
+        var isDisposed = false
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Fast" to FixedArtifactRepository(listOf(Artifact("me.scana", "fast", "+")))),
+                mapOf("Fast" to RecordingVersionResolver(Observable.never<Artifact>().doOnDispose { isDisposed = true })),
+                SearchSchedulers.using(scheduler)
+        )
+
+        val observer = interactor.search("fast").test()
+        scheduler.triggerActions()
+        observer.dispose()
+
+        assertTrue(isDisposed)
+    }
+
+    @Test
+    fun `skips repositories for queries below their minimum length`() {
+        val remote = DelayedArtifactRepository(scheduler, 100, "me.scana:remote:1.0")
+        val local = DelayedArtifactRepository(scheduler, 0, "me.scana:local:1.0", isLocal = true)
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Remote" to remote, "Local" to local),
+                schedulers = SearchSchedulers.using(scheduler),
+                minQueryLength = mapOf("Remote" to 3)
+        )
+
+        val observer = interactor.search("sc").test()
+        scheduler.triggerActions()
+
+        observer.assertComplete()
+        assertEquals(0, remote.subscriptions)
+        assertEquals("local", (observer.values().single() as SearchResult.Success).artifacts[0].name)
+        assertTrue(interactor.isAvailableLocally("sc"))
+        assertFalse(interactor.isAvailableLocally("scana"))
+    }
+
+    @Test
+    fun `records latency of remote searches`() {
+        val interactor = SearchArtifactsUseCase(
+                mapOf(
+                        "Remote" to DelayedArtifactRepository(scheduler, 300, "me.scana:remote:1.0"),
+                        "Local" to DelayedArtifactRepository(scheduler, 0, "me.scana:local:1.0", isLocal = true)
+                ),
+                schedulers = SearchSchedulers.using(scheduler)
+        )
+
+        interactor.search("scana").test()
+        scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
+
+        assertEquals(300L, interactor.latency.percentile(50))
+        assertEquals(150L, AdaptiveDebounce(interactor).delayFor("scana"))
+    }
+
+    @Test
+    fun `runs local lookups on cpu scheduler and remote ones on io scheduler`() {
+        val io = TestScheduler()
+        val cpu = TestScheduler()
+        val remote = DelayedArtifactRepository(scheduler, 0, "me.scana:remote:1.0")
+        val local = DelayedArtifactRepository(scheduler, 0, "me.scana:local:1.0", isLocal = true)
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Remote" to remote, "Local" to local),
+                schedulers = SearchSchedulers(io = io, cpu = cpu, ui = scheduler)
+        )
+
+        interactor.search("scana").test()
+
+        cpu.triggerActions()
+        assertEquals(0, remote.subscriptions)
+        assertEquals(1, local.subscriptions)
+        io.triggerActions()
+        assertEquals(1, remote.subscriptions)
+    }
+
+    @Test
+    fun `learns found artifacts on cpu scheduler`() {
+        val cpu = TestScheduler()
+        val matcher = FuzzyMatcher()
+        val interactor = SearchArtifactsUseCase(
+                mapOf("Remote" to DelayedArtifactRepository(scheduler, 0, "me.scana:retrofit:1.0")),
+                schedulers = SearchSchedulers(io = scheduler, cpu = cpu, ui = scheduler),
+                fuzzyMatcher = matcher
+        )
+
+        interactor.search("retrofit").test()
+        scheduler.triggerActions()
+
+        assertEquals(0, matcher.size())
+        cpu.triggerActions()
+        assertEquals("retrofit", matcher.suggest("retorfit")?.query)
+    }
+
+    @Test
+    fun `measures queries and repositories`() {
+        val metrics = SearchMetrics()
+        val interactor = SearchArtifactsUseCase(
+                mapOf(
+                        "Slow" to DelayedArtifactRepository(scheduler, 300, "me.scana:slow:1.0"),
+                        "Fast" to DelayedArtifactRepository(scheduler, 100, "me.scana:fast:1.0"),
+                        "Broken" to ErrorArtifactRepository(TimeoutException())
+                ),
+                schedulers = SearchSchedulers.using(scheduler),
+                metrics = metrics,
+                ticker = { scheduler.now(TimeUnit.NANOSECONDS) }
+        )
+
+        interactor.search("scana").test()
+        scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
+        val abandoned = interactor.search("scan").test()
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        abandoned.dispose()
+
+        assertEquals(2, metrics.timeToFirstResult.count)
+        assertEquals(1, metrics.timeToComplete.count)
+        assertEquals(300_000, metrics.timeToComplete.sum)
+        with(metrics.repository("Slow")) {
+            assertEquals(2, requests.get())
+            assertEquals(1, cancellations.get())
+            assertEquals(300_000, total.sum)
         }
+        with(metrics.repository("Broken")) {
+            assertEquals(2, errors.get())
+            assertEquals(2, timeouts.get())
+        }
+        assertEquals(0, metrics.repository("Fast").cancellations.get())
     }
 
-    class ErrorArtifactRepository(val exception: Exception) : ArtifactRepository {
+    class DelayedArtifactRepository(
+            private val scheduler: TestScheduler,
+            private val delayInMillis: Long,
+            private val artifactId: String,
+            private val isLocal: Boolean = false
+    ) : ArtifactRepository {
+
+        var subscriptions = 0
+
+        override fun isAvailableLocally(query: String) = isLocal
+
         override fun search(query: String): Single<SearchResult> {
-            TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
+            val (groupId, name, version) = artifactId.split(":")
+            return Single.just<SearchResult>(SearchResult.Success(listOf(Artifact(groupId, name, version))))
+                    .delay(delayInMillis, TimeUnit.MILLISECONDS, scheduler)
+                    .doOnSubscribe { subscriptions++ }
         }
     }
 
-    class NoResultWithSuggestionRepository(val suggestion: String) : ArtifactRepository {
-        override fun search(query: String): Single<SearchResult> {
-            TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
+    class FixedVersionResolver(private val version: String) : VersionResolver {
+        override fun resolveVersions(artifacts: List<Artifact>): Observable<Artifact> {
+            return Observable.fromIterable(artifacts).map { it.copy(version = version) }
         }
     }
 
-    class WithResultArtifactRepository(val artifactId: String) : ArtifactRepository {
-        override fun search(query: String): Single<SearchResult> {
-            TODO("not implemented") //To change body of created functions use File | Settings | File Templates.
+    class FixedArtifactRepository(private val artifacts: List<Artifact>) : ArtifactRepository {
+        override fun search(query: String): Single<SearchResult> = Single.just(SearchResult.Success(artifacts))
+    }
+
+    class RecordingVersionResolver(private val updates: Observable<Artifact>) : VersionResolver {
+        var artifacts = emptyList<Artifact>()
+
+        override fun resolveVersions(artifacts: List<Artifact>): Observable<Artifact> {
+            this.artifacts = artifacts
+            return updates
         }
-    }*/
-}
\ No newline at end of file
+    }
+
+    class ErrorArtifactRepository(private val exception: Exception) : ArtifactRepository {
+        override fun search(query: String): Single<SearchResult> = Single.error(exception)
+    }
+}
@@ -0,0 +1,205 @@
+package me.scana.okgradle.data
+
+import com.google.gson.GsonBuilder
+import com.intellij.openapi.module.Module
+import io.reactivex.Observable
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.PublishSubject
+import me.scana.okgradle.OkGradle
+import me.scana.okgradle.OkGradleDialogPresenter
+import me.scana.okgradle.OkGradleService
+import me.scana.okgradle.data.repository.*
+import me.scana.okgradle.util.IntellijTools
+import me.scana.okgradle.util.Selection
+import java.io.ByteArrayInputStream
+import java.util.*
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Types queries into [OkGradleDialogPresenter] the way people do, one key at a time, with every repository
+ * answered by a [StandInServer], and reports how long they waited.
+ *
+ * Repositories are wired like [OkGradleService] wires them, with its policies and minimum query lengths.
+ * Run [main] for a few typical network conditions.
+ */
+class SearchLoadHarness(
+        private val server: StandInServer,
+        private val keystrokes: StandInServer.Latency = StandInServer.Latency.uniform(60, 220),
+        private val settleMillis: Long = 3_000,
+        seed: Long = 7
+) {
+
+    private val random = Random(seed)
+
+    fun run(queries: List<String>): LoadReport {
+        val ui = Executors.newSingleThreadExecutor()
+        val schedulers = SearchSchedulers(Schedulers.io(), Schedulers.computation(), Schedulers.from(ui))
+        val metrics = SearchMetrics()
+        val view = RecordingView()
+        val presenter = OkGradleDialogPresenter(null, searchUseCase(schedulers, metrics), NoOpAddDependencyUseCase, NoModules, schedulers)
+        presenter.takeView(view)
+        try {
+            queries.forEach { query ->
+                (1..query.length).forEach { length ->
+                    Thread.sleep(keystrokes.sample(random))
+                    view.type(query.substring(0, length))
+                }
+                Thread.sleep(settleMillis)
+            }
+        } finally {
+            presenter.dropView()
+            ui.shutdown()
+        }
+        return LoadReport(queries.size, metrics.timeToFirstResult, metrics.timeToComplete, view.timeToShown, view.errors)
+    }
+
+    private fun searchUseCase(schedulers: SearchSchedulers, metrics: SearchMetrics): SearchArtifactsUseCase {
+        val client = server.client()
+        val gson = GsonBuilder()
+                .registerTypeAdapter(Spellcheck::class.java, SpellcheckDeserializer())
+                .create()
+        val clients = OkGradleService.POLICIES.mapValues {
+            NetworkClient(it.value.applyTo(client), it.value, schedulers.io, schedulers.cpu, metrics.repository(it.key))
+        }
+        val googleIndex = GoogleMavenIndexFetcher(NetworkClient(client)).fetch() as NetworkResult.Success
+        val indexStore = GoogleIndexStore(null, GoogleMavenIndexFetcher(NetworkClient(client)), schedulers.io, {
+            ByteArrayInputStream(ArtifactIndex.write(googleIndex.data, System.currentTimeMillis()))
+        })
+        val google = GoogleRepository(clients.getValue("Google"), indexStore, schedulers.io)
+        val repositories = mapOf(
+                "Google" to google,
+                "Maven" to MavenRepository(clients.getValue("Maven"), gson),
+                "JitPack" to JitPackRepository(clients.getValue("JitPack"), gson),
+                "Bintray" to BintrayRepository(clients.getValue("Bintray"), gson)
+        ).mapValues {
+            val repository = if (it.key == "Google") it.value else CachingArtifactRepository(it.value)
+            ResilientArtifactRepository(repository, OkGradleService.POLICIES.getValue(it.key), schedulers.cpu)
+        }
+        return SearchArtifactsUseCase(
+                repositories,
+                versionResolvers = mapOf("Google" to google),
+                schedulers = schedulers,
+                minQueryLength = OkGradleService.MIN_QUERY_LENGTH,
+                metrics = metrics
+        )
+    }
+
+    /**
+     * @param timeToFirstResult from sending a query to its first result
+     * @param timeToComplete from sending a query until every repository answered, for queries nobody typed over
+     * @param timeToShown from a keystroke until results showed up in the view, including the debounce
+     */
+    class LoadReport(
+            val queries: Int,
+            val timeToFirstResult: LatencyHistogram,
+            val timeToComplete: LatencyHistogram,
+            val timeToShown: LatencyHistogram,
+            val errors: Int
+    ) {
+        override fun toString(): String {
+            return "$queries queries, ${timeToComplete.count} searches completed, $errors errors shown\n" +
+                    "  first result  ${percentiles(timeToFirstResult)}\n" +
+                    "  complete      ${percentiles(timeToComplete)}\n" +
+                    "  shown         ${percentiles(timeToShown)}\n"
+        }
+
+        private fun percentiles(histogram: LatencyHistogram): String {
+            if (histogram.count == 0L) {
+                return "-"
+            }
+            return listOf(50.0, 95.0, 99.0).joinToString("  ") {
+                "p${it.toInt()} ${TimeUnit.MICROSECONDS.toMillis(histogram.percentile(it))} ms"
+            }
+        }
+    }
+
+    private class RecordingView : OkGradle.View {
+
+        private val input = PublishSubject.create<String>()
+
+        @Volatile
+        private var lastKeystroke = 0L
+
+        @Volatile
+        private var isWaiting = false
+
+        val timeToShown = LatencyHistogram()
+
+        @Volatile
+        var errors = 0
+
+        fun type(text: String) {
+            lastKeystroke = System.nanoTime()
+            isWaiting = true
+            input.onNext(text)
+        }
+
+        override fun showArtifacts(artifacts: List<Artifact>) {
+            if (isWaiting && artifacts.isNotEmpty()) {
+                isWaiting = false
+                timeToShown.record(System.nanoTime() - lastKeystroke, TimeUnit.NANOSECONDS)
+            }
+        }
+
+        override fun displayError(throwable: Throwable) {
+            errors++
+        }
+
+        override fun userTextInputObservable(): Observable<String> = input
+
+        override fun userArtifactSelectionObservable(): Observable<Selection<Artifact>> = Observable.never()
+
+        override fun updateArtifact(artifact: Artifact) = Unit
+        override fun showSuggestion(suggestion: String) = Unit
+        override fun showUnavailableRepositories(titles: List<String>) = Unit
+        override fun displayModules(modules: List<Module>) = Unit
+        override fun setUpButtons(allEnabled: Boolean, isAddDependencyVisible: Boolean) = Unit
+        override fun resetListState() = Unit
+        override fun fillSearchPhrase(searchPhrase: String) = Unit
+    }
+
+    private object NoOpAddDependencyUseCase : AddDependencyUseCase {
+        override fun addDependency(module: Module, artifact: Artifact) = Unit
+        override fun copyToClipboard(artifact: Artifact) = Unit
+    }
+
+    private object NoModules : IntellijTools {
+        override fun getModules(): List<Module> = emptyList()
+    }
+}
+
+private val QUERIES = listOf("retrofit", "appcompat", "material", "okhttp", "commons-io", "edittext")
+
+private val TYPICAL = StandInServer.Behaviour(StandInServer.Latency.logNormal(medianMillis = 120, p99Millis = 900))
+
+private class Scenario(val name: String, val configure: StandInServer.() -> Unit)
+
+private val SCENARIOS = listOf(
+        Scenario("fast") { defaultBehaviour = StandInServer.Behaviour(StandInServer.Latency.fixed(5)) },
+        Scenario("typical") { defaultBehaviour = TYPICAL },
+        Scenario("slow JitPack") {
+            defaultBehaviour = TYPICAL
+            behave("jitpack.io", StandInServer.Behaviour(StandInServer.Latency.logNormal(medianMillis = 2_000, p99Millis = 9_000)))
+        },
+        Scenario("flaky Bintray") {
+            defaultBehaviour = TYPICAL
+            behave("api.bintray.com", TYPICAL.copy(errorRate = 0.3, failure = StandInServer.Failure.DISCONNECT))
+        },
+        Scenario("slow link") { defaultBehaviour = TYPICAL.copy(bytesPerSecond = 16 * 1024) }
+)
+
+/**
+ * Prints a report for each network condition. Pass a number of rounds to type the queries more than once.
+ */
+fun main(args: Array<String>) {
+    val rounds = args.firstOrNull()?.toInt() ?: 1
+    val queries = List(rounds) { QUERIES }.flatten()
+    SCENARIOS.forEach { scenario ->
+        StandInServer().use { server ->
+            scenario.configure(server)
+            server.start()
+            println("${scenario.name}: ${SearchLoadHarness(server).run(queries)}")
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.scana.okgradle.data
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class SearchLoadHarnessTest {
+
+    val server = StandInServer()
+
+    val harness = SearchLoadHarness(server, keystrokes = StandInServer.Latency.fixed(20), settleMillis = 1_500)
+
+    @Before
+    fun setUp() {
+        server.defaultBehaviour = StandInServer.Behaviour(StandInServer.Latency.fixed(10))
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.close()
+    }
+
+    @Test
+    fun `reports waiting times of a typing session`() {
+        val report = harness.run(listOf("retrofit"))
+
+        assertEquals(1, report.queries)
+        assertTrue(report.timeToComplete.count > 0)
+        assertTrue(report.timeToShown.count > 0)
+        assertEquals(0, report.errors)
+        assertTrue(report.toString().contains("p95"))
+    }
+}
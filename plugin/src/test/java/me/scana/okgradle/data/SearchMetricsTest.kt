@@ -0,0 +1,55 @@
+package me.scana.okgradle.data
+
+import org.junit.Test
+import java.net.SocketTimeoutException
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class SearchMetricsTest {
+
+    val metrics = SearchMetrics()
+
+    @Test
+    fun `writes OpenMetrics text`() {
+        metrics.timeToComplete.record(20, TimeUnit.MILLISECONDS)
+        metrics.timeToComplete.record(3, TimeUnit.SECONDS)
+        with(metrics.repository("Maven")) {
+            requests.addAndGet(3)
+            onError(SocketTimeoutException())
+            network.record(40, TimeUnit.MILLISECONDS)
+        }
+        metrics.gauge("ok_gradle_cache_hit_ratio", "Share of cached searches.", mapOf("repository" to "Maven")) { 0.25 }
+
+        val text = StringBuilder().also { metrics.writeOpenMetrics(it) }.toString()
+        val lines = text.lines()
+
+        assertTrue("# TYPE ok_gradle_time_to_complete_seconds histogram" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_bucket{le=\"0.025\"} 1" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_bucket{le=\"2.5\"} 1" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_bucket{le=\"5\"} 2" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_bucket{le=\"+Inf\"} 2" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_count 2" in lines)
+        assertTrue("ok_gradle_time_to_complete_seconds_sum 3.02" in lines)
+        assertTrue("# TYPE ok_gradle_repository_requests counter" in lines)
+        assertTrue("ok_gradle_repository_requests_total{repository=\"Maven\"} 3" in lines)
+        assertTrue("ok_gradle_repository_timeouts_total{repository=\"Maven\"} 1" in lines)
+        assertTrue("ok_gradle_repository_network_seconds_count{repository=\"Maven\"} 1" in lines)
+        assertTrue("ok_gradle_cache_hit_ratio{repository=\"Maven\"} 0.25" in lines)
+        assertEquals("# EOF", text.trimEnd().lines().last())
+    }
+
+    @Test
+    fun `summarizes repositories`() {
+        with(metrics.repository("Google")) {
+            requests.incrementAndGet()
+            total.record(5, TimeUnit.MILLISECONDS)
+        }
+
+        val summary = metrics.summary()
+
+        assertTrue("Google: 1 requests, 0 errors, 0 timeouts, 0 cancelled" in summary)
+        assertTrue("p50 5 ms" in summary)
+    }
+}
@@ -0,0 +1,77 @@
+package me.scana.okgradle.data
+
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import me.scana.okgradle.data.repository.Artifact
+import me.scana.okgradle.data.repository.SearchResult
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@Suppress("MemberVisibilityCanPrivate")
+class SearchResultCoalescerTest {
+
+    val scheduler = TestScheduler()
+    val results = PublishSubject.create<SearchResult>()
+    val observer = results.compose(SearchResultCoalescer(scheduler, frameInMillis = 20)).test()
+
+    val retrofit = Artifact("com.squareup.retrofit2", "retrofit", "+")
+    val okhttp = Artifact("com.squareup.okhttp3", "okhttp", "4.2.0")
+
+    @Test
+    fun `emits one batch per frame`() {
+        results.onNext(SearchResult.Success(listOf(retrofit)))
+        results.onNext(SearchResult.Success(listOf(retrofit, okhttp), suggestion = "retrofit"))
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+        observer.assertNoValues()
+
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+        observer.assertValue(ResultBatch(listOf(retrofit, okhttp), emptyList(), "retrofit", emptyList()))
+    }
+
+    @Test
+    fun `does not emit while nothing arrives`() {
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+        observer.assertNoValues()
+
+        results.onNext(SearchResult.Success(listOf(okhttp)))
+        scheduler.advanceTimeBy(20, TimeUnit.MILLISECONDS)
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+        observer.assertValueCount(1)
+    }
+
+    @Test
+    fun `folds version updates into the latest list`() {
+        val updated = retrofit.copy(version = "2.6.0")
+        results.onNext(SearchResult.Success(listOf(retrofit, okhttp)))
+        results.onNext(SearchResult.VersionUpdate(updated))
+        scheduler.advanceTimeBy(20, TimeUnit.MILLISECONDS)
+
+        assertEquals(listOf(updated, okhttp), observer.values().single().artifacts)
+    }
+
+    @Test
+    fun `passes version updates and errors on their own`() {
+        val updated = retrofit.copy(version = "2.6.0")
+        val error = IOException()
+        results.onNext(SearchResult.VersionUpdate(updated))
+        results.onNext(SearchResult.Error(error))
+        scheduler.advanceTimeBy(20, TimeUnit.MILLISECONDS)
+
+        val batch = observer.values().single()
+        assertNull(batch.artifacts)
+        assertEquals(listOf(updated), batch.versionUpdates)
+        assertEquals(listOf<Throwable>(error), batch.errors)
+    }
+
+    @Test
+    fun `flushes pending results on completion`() {
+        results.onNext(SearchResult.Success(listOf(okhttp)))
+        results.onComplete()
+
+        observer.assertValueCount(1)
+        observer.assertComplete()
+    }
+}
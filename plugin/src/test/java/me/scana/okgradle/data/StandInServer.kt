@@ -0,0 +1,197 @@
+package me.scana.okgradle.data
+
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.toResponseBody
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okhttp3.mockwebserver.SocketPolicy
+import okio.Buffer
+import java.io.Closeable
+import java.io.File
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A local stand-in for the artifact repositories.
+ *
+ * Clients built with [client] send every request here instead of the real host. Responses are replayed from
+ * recordings laid out as `<host>/<path>`, by default the ones under `/standin` on the test classpath; when there is
+ * no recording for a path, the closest one with the same file name further up is used, so one `maven-metadata.xml`
+ * answers for every artifact. [RecordingInterceptor] captures new recordings from the real repositories.
+ *
+ * Each host can be given its own [Behaviour]: latency, bandwidth and a share of failed requests.
+ */
+class StandInServer(
+        private val recordings: (String) -> ByteArray? = { StandInServer::class.java.getResource("/standin/$it")?.readBytes() },
+        seed: Long = 42
+) : Closeable {
+
+    private val server = MockWebServer()
+    private val random = Random(seed)
+    private val behaviours = ConcurrentHashMap<String, Behaviour>()
+    private val requests = AtomicInteger()
+
+    var defaultBehaviour = Behaviour()
+
+    init {
+        server.dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = respond(request)
+        }
+    }
+
+    fun start() = server.start()
+
+    fun behave(host: String, behaviour: Behaviour) {
+        behaviours[host] = behaviour
+    }
+
+    fun requestCount() = requests.get()
+
+    /**
+     * Points [client] at this server, keeping the original host in a header so the right recording is replayed.
+     */
+    fun client(client: OkHttpClient = OkHttpClient()): OkHttpClient {
+        return client.newBuilder()
+                .addInterceptor(Interceptor { chain ->
+                    val request = chain.request()
+                    val url = request.url.newBuilder()
+                            .scheme("http")
+                            .host(server.hostName)
+                            .port(server.port)
+                            .build()
+                    chain.proceed(request.newBuilder().url(url).header(HOST_HEADER, request.url.host).build())
+                })
+                .build()
+    }
+
+    override fun close() = server.shutdown()
+
+    private fun respond(request: RecordedRequest): MockResponse {
+        requests.incrementAndGet()
+        val host = request.getHeader(HOST_HEADER) ?: return MockResponse().setResponseCode(400)
+        val behaviour = behaviours[host] ?: defaultBehaviour
+        val response = MockResponse().setHeadersDelay(behaviour.latency.sample(random), TimeUnit.MILLISECONDS)
+        if (random.nextDouble() < behaviour.errorRate) {
+            return behaviour.failure.applyTo(response)
+        }
+        val path = request.requestUrl?.pathSegments.orEmpty().filter { it.isNotEmpty() }
+        val body = recordingFor(host, path) ?: return response.setResponseCode(404)
+        response.setBody(Buffer().write(body))
+                .setHeader("Content-Type", contentTypeOf(body))
+        if (behaviour.bytesPerSecond > 0) {
+            response.throttleBody(behaviour.bytesPerSecond / THROTTLE_PERIODS_PER_SECOND, 1000L / THROTTLE_PERIODS_PER_SECOND, TimeUnit.MILLISECONDS)
+        }
+        return response
+    }
+
+    private fun recordingFor(host: String, path: List<String>): ByteArray? {
+        if (path.isEmpty()) {
+            return null
+        }
+        recordings("$host/${path.joinToString("/")}")?.let { return it }
+        for (depth in path.size - 2 downTo 0) {
+            val candidate = (path.subList(0, depth) + path.last()).joinToString("/")
+            recordings("$host/$candidate")?.let { return it }
+        }
+        return null
+    }
+
+    private fun contentTypeOf(body: ByteArray): String {
+        val first = body.firstOrNull { !it.toChar().isWhitespace() }?.toChar()
+        return if (first == '{' || first == '[') "application/json" else "application/xml"
+    }
+
+    /**
+     * @param latency time until the response headers are sent
+     * @param bytesPerSecond how fast the body is sent, unlimited when 0
+     * @param errorRate share of requests which fail with [failure]
+     */
+    data class Behaviour(
+            val latency: Latency = Latency.fixed(0),
+            val bytesPerSecond: Long = 0,
+            val errorRate: Double = 0.0,
+            val failure: Failure = Failure.SERVER_ERROR
+    )
+
+    enum class Failure {
+        SERVER_ERROR {
+            override fun applyTo(response: MockResponse) = response.setResponseCode(503)
+        },
+        DISCONNECT {
+            override fun applyTo(response: MockResponse) = response.setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST)
+        },
+        TRUNCATED_BODY {
+            override fun applyTo(response: MockResponse) = response
+                    .setBody("{\"response\":{\"docs\":[{\"id\":")
+                    .setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY)
+        },
+        NO_RESPONSE {
+            override fun applyTo(response: MockResponse) = response.setSocketPolicy(SocketPolicy.NO_RESPONSE)
+        };
+
+        abstract fun applyTo(response: MockResponse): MockResponse
+    }
+
+    /**
+     * A distribution of response times in milliseconds.
+     */
+    abstract class Latency {
+
+        abstract fun sample(random: Random): Long
+
+        companion object {
+            fun fixed(millis: Long): Latency = object : Latency() {
+                override fun sample(random: Random) = millis
+            }
+
+            fun uniform(minMillis: Long, maxMillis: Long): Latency = object : Latency() {
+                override fun sample(random: Random) = minMillis + (random.nextDouble() * (maxMillis - minMillis)).toLong()
+            }
+
+            /**
+             * Mostly fast with a long tail, the way real services answer: half of the samples are below [medianMillis]
+             * and one in a hundred is above [p99Millis].
+             */
+            fun logNormal(medianMillis: Long, p99Millis: Long): Latency = object : Latency() {
+                private val mu = Math.log(medianMillis.toDouble())
+                private val sigma = (Math.log(p99Millis.toDouble()) - mu) / Z_99
+
+                override fun sample(random: Random) = Math.exp(mu + sigma * random.nextGaussian()).toLong()
+            }
+
+            private const val Z_99 = 2.326
+        }
+    }
+
+    companion object {
+        private const val HOST_HEADER = "X-Stand-In-Host"
+        private const val THROTTLE_PERIODS_PER_SECOND = 10
+    }
+}
+
+/**
+ * Saves every successful response from the real repositories under [directory], in the layout [StandInServer] replays.
+ */
+class RecordingInterceptor(private val directory: File) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+        val body = response.body
+        if (!response.isSuccessful || body == null) {
+            return response
+        }
+        val contentType = body.contentType()
+        val bytes = body.use { it.bytes() }
+        val file = File(directory, "${request.url.host}/${request.url.pathSegments.filter { it.isNotEmpty() }.joinToString("/")}")
+        file.parentFile.mkdirs()
+        file.writeBytes(bytes)
+        return response.newBuilder().body(bytes.toResponseBody(contentType)).build()
+    }
+}
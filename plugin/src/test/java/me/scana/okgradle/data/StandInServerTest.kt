@@ -0,0 +1,140 @@
+package me.scana.okgradle.data
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.IOException
+import java.util.*
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class StandInServerTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    val recordings = mapOf(
+            "search.maven.org/solrsearch/select" to "{\"response\":{}}",
+            "dl.google.com/dl/android/maven2/maven-metadata.xml" to "<metadata/>"
+    )
+
+    val server = StandInServer({ recordings[it]?.toByteArray() })
+
+    lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server.start()
+        client = server.client(OkHttpClient.Builder().readTimeout(1, TimeUnit.SECONDS).build())
+    }
+
+    @After
+    fun tearDown() {
+        server.close()
+    }
+
+    @Test
+    fun `replays the recording for a host and path`() {
+        val (code, body) = get("http://search.maven.org/solrsearch/select?q=retrofit")
+
+        assertEquals(200, code)
+        assertEquals("{\"response\":{}}", body)
+        assertEquals(1, server.requestCount())
+    }
+
+    @Test
+    fun `falls back to the closest recording with the same name`() {
+        val (code, body) = get("https://dl.google.com/dl/android/maven2/androidx/room/room-runtime/maven-metadata.xml")
+
+        assertEquals(200, code)
+        assertEquals("<metadata/>", body)
+    }
+
+    @Test
+    fun `answers 404 without a recording`() {
+        assertEquals(404, get("https://jitpack.io/api/search?q=okhttp").first)
+    }
+
+    @Test
+    fun `delays responses`() {
+        server.defaultBehaviour = StandInServer.Behaviour(latency = StandInServer.Latency.fixed(200))
+
+        val start = System.nanoTime()
+        get("http://search.maven.org/solrsearch/select")
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200)
+    }
+
+    @Test
+    fun `throttles response bodies`() {
+        val body = "x".repeat(2000)
+        val throttled = StandInServer({ body.toByteArray() })
+        throttled.defaultBehaviour = StandInServer.Behaviour(bytesPerSecond = 4000)
+        throttled.start()
+        try {
+            val start = System.nanoTime()
+            val response = throttled.client().newCall(Request.Builder().url("http://example.com/payload").build()).execute()
+
+            assertEquals(body.length, response.body!!.string().length)
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400)
+        } finally {
+            throttled.close()
+        }
+    }
+
+    @Test
+    fun `injects failures per host`() {
+        server.behave("search.maven.org", StandInServer.Behaviour(errorRate = 1.0))
+
+        assertEquals(503, get("http://search.maven.org/solrsearch/select").first)
+        assertEquals(200, get("https://dl.google.com/dl/android/maven2/maven-metadata.xml").first)
+    }
+
+    @Test
+    fun `drops connections`() {
+        server.behave("search.maven.org", StandInServer.Behaviour(errorRate = 1.0, failure = StandInServer.Failure.DISCONNECT))
+
+        assertFailsWith<IOException> { get("http://search.maven.org/solrsearch/select") }
+    }
+
+    @Test
+    fun `samples long tailed latencies`() {
+        val latency = StandInServer.Latency.logNormal(medianMillis = 100, p99Millis = 1000)
+        val random = Random(1)
+
+        val samples = List(10_000) { latency.sample(random) }.sorted()
+
+        assertTrue(samples[5_000] in 90..110)
+        assertTrue(samples[9_900] in 800..1200)
+    }
+
+    @Test
+    fun `records responses in the replayed layout`() {
+        val directory = folder.newFolder()
+        val recorder = server.client()
+                .newBuilder()
+                .also { it.interceptors().add(0, RecordingInterceptor(directory)) }
+                .build()
+
+        recorder.newCall(Request.Builder().url("http://search.maven.org/solrsearch/select?q=gson").build()).execute().close()
+
+        val replayed = StandInServer({ File(directory, it).takeIf { file -> file.isFile }?.readBytes() })
+        assertEquals("{\"response\":{}}", replayed.use { it.start(); getFrom(it.client(), "http://search.maven.org/solrsearch/select").second })
+    }
+
+    private fun get(url: String) = getFrom(client, url)
+
+    private fun getFrom(client: OkHttpClient, url: String): Pair<Int, String> {
+        client.newCall(Request.Builder().url(url).build()).execute().use {
+            return it.code to it.body!!.string()
+        }
+    }
+}
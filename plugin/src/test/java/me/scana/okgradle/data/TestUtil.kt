@@ -7,16 +7,19 @@ import okhttp3.ResponseBody.Companion.toResponseBody
 class TestInterceptor : Interceptor {
 
     var recentRequest: Request? = null
-    private var response: Response = buildResponse("".toResponseBody("text/plain".toMediaType()))
+    private var response: () -> Response = { buildResponse("".toResponseBody("text/plain".toMediaType())) }
 
     override fun intercept(chain: Interceptor.Chain): Response {
         recentRequest = chain.request()
-        return response
+        return response()
     }
 
     fun returnsJson(json: String) {
-        val body = json.toResponseBody("application/json".toMediaType())
-        response = buildResponse(body)
+        response = { buildResponse(json.toResponseBody("application/json".toMediaType())) }
+    }
+
+    fun returnsXml(xml: String) {
+        response = { buildResponse(xml.toResponseBody("application/xml".toMediaType())) }
     }
 
     private fun buildResponse(body: ResponseBody): Response {
@@ -41,6 +44,10 @@ class MockOkHttpClient {
         testInterceptor.returnsJson(json)
     }
 
+    fun returnsXml(xml: String) {
+        testInterceptor.returnsXml(xml)
+    }
+
     fun instance() = okHttpClient
 
     fun recentRequest(): Request? = testInterceptor.recentRequest
@@ -0,0 +1,17 @@
+package me.scana.okgradle.data
+
+import me.scana.okgradle.data.repository.VersionComparator
+import org.junit.Test
+import kotlin.test.assertEquals
+
+class VersionComparatorTest {
+
+    @Test
+    fun `orders versions by their numeric parts`() {
+        val versions = listOf("1.10.0", "1.2.0", "1.2.0-alpha01", "1.2", "1.2.0-rc01")
+        assertEquals(
+                listOf("1.2", "1.2.0-alpha01", "1.2.0-rc01", "1.2.0", "1.10.0"),
+                versions.sortedWith(VersionComparator)
+        )
+    }
+}
@@ -0,0 +1,69 @@
+package me.scana.okgradle.internal.dsl
+
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Computable
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.testFramework.LightProjectDescriptor
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory
+import com.intellij.testFramework.fixtures.impl.TempDirTestFixtureImpl
+import com.intellij.testFramework.runInEdtAndGet
+import com.intellij.testFramework.runInEdtAndWait
+import me.scana.okgradle.internal.dsl.api.GradleBuildModel
+import me.scana.okgradle.internal.dsl.api.GradleModelProvider
+import me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl
+import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile
+
+/**
+ * A light project with its files in a real temporary directory, so that project build models find them too.
+ * Writes run in a write command on the EDT, reads in a read action on the calling thread.
+ */
+class DslTestFixture {
+
+    private lateinit var fixture: CodeInsightTestFixture
+
+    val project: Project get() = fixture.project
+
+    val root: String get() = fixture.tempDirPath
+
+    fun setUp() {
+        val factory = IdeaTestFixtureFactory.getFixtureFactory()
+        val builder = factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR)
+        fixture = factory.createCodeInsightFixture(builder.fixture, TempDirTestFixtureImpl())
+        runInEdtAndWait { fixture.setUp() }
+    }
+
+    fun tearDown() {
+        runInEdtAndWait { fixture.tearDown() }
+    }
+
+    fun addFile(path: String, text: String): VirtualFile = runInEdtAndGet { fixture.addFileToProject(path, text).virtualFile }
+
+    fun parse(file: VirtualFile): GradleDslFile = (parseModel(file) as GradleBuildModelImpl).dslFile
+
+    fun parseModel(file: VirtualFile): GradleBuildModel = read {
+        GradleModelProvider.get().parseBuildFile(file, project, "app")
+    }
+
+    fun <T> read(action: () -> T): T = ReadAction.compute<T, RuntimeException> { action() }
+
+    fun <T> write(action: () -> T): T = runInEdtAndGet { WriteCommandAction.runWriteCommandAction(project, Computable { action() }) }
+
+    /**
+     * Replaces the first [old] text of [file] and commits the document, like typing in an editor would. Without [commit] the PSI
+     * is left as it was.
+     */
+    fun edit(file: VirtualFile, old: String, new: String, commit: Boolean = true) = write {
+        val document = FileDocumentManager.getInstance().getDocument(file)!!
+        val start = document.text.indexOf(old)
+        check(start >= 0) { "No '$old' in ${file.name}" }
+        document.replaceString(start, start + old.length, new)
+        if (commit) {
+            PsiDocumentManager.getInstance(project).commitDocument(document)
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package me.scana.okgradle.internal.dsl.model
+
+import com.intellij.openapi.vfs.VirtualFile
+import me.scana.okgradle.internal.dsl.DslTestFixture
+import me.scana.okgradle.internal.dsl.api.ProjectBuildModel
+import me.scana.okgradle.internal.dsl.parser.BuildModelContextCache
+import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+
+@Suppress("MemberVisibilityCanPrivate")
+class ProjectBuildModelImplTest {
+
+    val fixture = DslTestFixture()
+
+    lateinit var buildFile: VirtualFile
+
+    @Before
+    fun setUp() {
+        fixture.setUp()
+        buildFile = fixture.addFile("build.gradle", "ext {\n  okhttpVersion = '4.2.0'\n}\n")
+    }
+
+    @After
+    fun tearDown() {
+        BuildModelContextCache.getInstance(fixture.project).clear()
+        fixture.tearDown()
+    }
+
+    @Test
+    fun `fails once its changes were applied`() {
+        val model = model()
+
+        fixture.write { model.applyChanges() }
+
+        assertFailsWith<IllegalStateException> { model.projectBuildModel }
+        assertFailsWith<IllegalStateException> { model.applyChanges() }
+    }
+
+    @Test
+    fun `reuses the files of a model which applied its changes`() {
+        val first = model()
+        val file = dslFile(first)
+        fixture.write { first.applyChanges() }
+
+        assertSame(file, dslFile(model()))
+    }
+
+    @Test
+    fun `never sees the changes of a model which did not apply them`() {
+        val first = model()
+        fixture.write { first.applyChanges() }
+        val second = model()
+        fixture.write { second.projectBuildModel!!.ext().findProperty("okhttpVersion").setValue("4.9.0") }
+
+        val third = model()
+
+        assertNotSame(dslFile(second), dslFile(third))
+        assertEquals("4.2.0", okhttpVersion(third))
+    }
+
+    @Test
+    fun `parses a file again when it changed after the changes were applied`() {
+        val first = model()
+        fixture.write { first.applyChanges() }
+
+        fixture.edit(buildFile, "4.2.0", "4.9.0")
+
+        assertEquals("4.9.0", okhttpVersion(model()))
+    }
+
+    private fun model(): ProjectBuildModel = ProjectBuildModelImpl.get(fixture.project, fixture.root)!!
+
+    private fun dslFile(model: ProjectBuildModel): GradleDslFile = (model.projectBuildModel as GradleBuildModelImpl).dslFile
+
+    private fun okhttpVersion(model: ProjectBuildModel): String =
+        fixture.read { model.projectBuildModel!!.ext().findProperty("okhttpVersion").forceString() }
+}
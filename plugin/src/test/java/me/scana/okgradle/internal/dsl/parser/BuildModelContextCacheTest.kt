@@ -0,0 +1,251 @@
+package me.scana.okgradle.internal.dsl.parser
+
+import com.intellij.openapi.vfs.VirtualFile
+import me.scana.okgradle.internal.dsl.DslTestFixture
+import me.scana.okgradle.internal.dsl.api.ProjectBuildModel
+import me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl
+import me.scana.okgradle.internal.dsl.model.ProjectBuildModelImpl
+import me.scana.okgradle.internal.dsl.parser.buildscript.SubProjectsDslElement
+import me.scana.okgradle.internal.dsl.parser.dependencies.DependenciesDslElement
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslElement
+import me.scana.okgradle.internal.dsl.parser.elements.GradleDslSimpleExpression
+import me.scana.okgradle.internal.dsl.parser.elements.GradlePropertiesDslElement
+import me.scana.okgradle.internal.dsl.parser.ext.ExtDslElement
+import me.scana.okgradle.internal.dsl.parser.files.GradleDslFile
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+
+@Suppress("MemberVisibilityCanPrivate")
+class BuildModelContextCacheTest {
+
+    val fixture = DslTestFixture()
+
+    @Before
+    fun setUp() {
+        fixture.setUp()
+    }
+
+    @After
+    fun tearDown() {
+        BuildModelContextCache.getInstance(fixture.project).clear()
+        fixture.tearDown()
+    }
+
+    @Test
+    fun `parses only the edited block again`() {
+        val buildFile = addBuildFile("""
+            ext {
+              okhttpVersion = '4.2.0'
+            }
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+        val dependency = dependency(file)
+
+        fixture.edit(buildFile, "4.2.0", "4.9.0")
+        val model = model()
+
+        assertSame(file, dslFile(model))
+        assertSame(dependency, dependency(file))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+    }
+
+    @Test
+    fun `binds references out of the edited block again`() {
+        val buildFile = addBuildFile("""
+            ext {
+              okhttpVersion = '4.2.0'
+            }
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+        val version = block(file, ExtDslElement.EXT_BLOCK_NAME).getPropertyElement("okhttpVersion")
+
+        fixture.edit(buildFile, "okhttp3:okhttp", "okhttp3:logging-interceptor")
+        val model = model()
+
+        assertSame(version, block(file, ExtDslElement.EXT_BLOCK_NAME).getPropertyElement("okhttpVersion"))
+        assertEquals("com.squareup.okhttp3:logging-interceptor:4.2.0", compactNotation(model))
+    }
+
+    @Test
+    fun `parses the file again when the edited block has properties assigned from outside`() {
+        val buildFile = addBuildFile("""
+            ext.okhttpGroup = 'com.squareup.okhttp3'
+            ext {
+              okhttpVersion = '4.2.0'
+            }
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+        val dependency = dependency(file)
+
+        fixture.edit(buildFile, "4.2.0", "4.9.0")
+        val model = model()
+
+        assertSame(file, dslFile(model))
+        assertNotSame(dependency, dependency(file))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+    }
+
+    @Test
+    fun `parses every file again when an applied file was edited`() {
+        addBuildFile("""
+            apply from: 'versions.gradle'
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val versionsFile = fixture.addFile("versions.gradle", "ext {\n  okhttpVersion = '4.2.0'\n}\n")
+        val file = applied()
+
+        fixture.edit(versionsFile, "4.2.0", "4.9.0")
+        val model = model()
+
+        assertNotSame(file, dslFile(model))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+    }
+
+    @Test
+    fun `parses the file again when an edited element was removed since`() {
+        val buildFile = addBuildFile("""
+            buildscript {
+              ext {
+                okhttpVersion = '4.2.0'
+              }
+            }
+            dependencies {
+              implementation 'com.squareup.okhttp3:okhttp:4.2.0'
+            }
+        """)
+        val file = applied()
+        val dependency = dependency(file)
+
+        fixture.edit(buildFile, "okhttpVersion = '4.2.0'", "okhttpVersion = '4.9.0'")
+        fixture.edit(buildFile, "ext {\n    okhttpVersion = '4.9.0'\n  }", "")
+        val model = model()
+
+        assertSame(file, dslFile(model))
+        assertNotSame(dependency, dependency(file))
+    }
+
+    @Test
+    fun `parses the file again when its document changed without the PSI`() {
+        val buildFile = addBuildFile("""
+            ext {
+              okhttpVersion = '4.2.0'
+            }
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+        val dependency = dependency(file)
+
+        fixture.edit(buildFile, "4.2.0", "4.9.0", commit = false)
+        val model = model()
+
+        assertSame(file, dslFile(model))
+        assertNotSame(dependency, dependency(file))
+    }
+
+    @Test
+    fun `parses the file again when a block within allprojects was edited`() {
+        val buildFile = addBuildFile("""
+            allprojects {
+              ext {
+                okhttpVersion = '4.2.0'
+              }
+            }
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+        val dependency = dependency(file)
+
+        fixture.edit(buildFile, "4.2.0", "4.9.0")
+        val model = model()
+
+        assertSame(file, dslFile(model))
+        assertNotSame(dependency, dependency(file))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+        val subProjectsVersion = fixture.read {
+            val subProjects = file.getPropertyElement(SubProjectsDslElement.SUBPROJECTS_BLOCK_NAME, SubProjectsDslElement::class.java)!!
+            val ext = subProjects.getPropertyElement(ExtDslElement.EXT_BLOCK_NAME, ExtDslElement::class.java)!!
+            (ext.getPropertyElement("okhttpVersion") as GradleDslSimpleExpression).value
+        }
+        assertEquals("4.9.0", subProjectsVersion)
+    }
+
+    @Test
+    fun `parses every file again when gradle properties were created`() {
+        addBuildFile("""
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+
+        fixture.addFile("gradle.properties", "okhttpVersion=4.9.0")
+        val model = model()
+
+        assertNotSame(file, dslFile(model))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+    }
+
+    @Test
+    fun `parses every file again when a missing applied file was created`() {
+        addBuildFile("""
+            apply from: 'versions.gradle'
+            dependencies {
+              implementation "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+        val file = applied()
+
+        fixture.addFile("versions.gradle", "ext {\n  okhttpVersion = '4.9.0'\n}\n")
+        val model = model()
+
+        assertNotSame(file, dslFile(model))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", compactNotation(model))
+    }
+
+    private fun addBuildFile(text: String): VirtualFile = fixture.addFile("build.gradle", text.trimIndent())
+
+    private fun model(): ProjectBuildModel = ProjectBuildModelImpl.get(fixture.project, fixture.root)!!
+
+    /**
+     * Parses the project and hands its files over to the cache.
+     */
+    private fun applied(): GradleDslFile {
+        val model = model()
+        val file = dslFile(model)
+        fixture.write { model.applyChanges() }
+        return file
+    }
+
+    private fun dslFile(model: ProjectBuildModel): GradleDslFile = (model.projectBuildModel as GradleBuildModelImpl).dslFile
+
+    private fun block(file: GradleDslFile, name: String): GradlePropertiesDslElement = fixture.read {
+        file.getPropertyElement(name, GradlePropertiesDslElement::class.java)!!
+    }
+
+    private fun dependency(file: GradleDslFile): GradleDslElement = fixture.read {
+        block(file, DependenciesDslElement.DEPENDENCIES_BLOCK_NAME).allElements.first()
+    }
+
+    private fun compactNotation(model: ProjectBuildModel): String = fixture.read {
+        model.projectBuildModel!!.dependencies().artifacts().first().compactNotation()
+    }
+}
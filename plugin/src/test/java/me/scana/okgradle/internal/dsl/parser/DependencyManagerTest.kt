@@ -0,0 +1,86 @@
+package me.scana.okgradle.internal.dsl.parser
+
+import me.scana.okgradle.internal.dsl.DslTestFixture
+import me.scana.okgradle.internal.dsl.api.GradleBuildModel
+import me.scana.okgradle.internal.dsl.api.ext.ReferenceTo
+import me.scana.okgradle.internal.dsl.model.GradleBuildModelImpl
+import me.scana.okgradle.internal.dsl.parser.ext.ExtDslElement
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@Suppress("MemberVisibilityCanPrivate")
+class DependencyManagerTest {
+
+    val fixture = DslTestFixture()
+
+    @Before
+    fun setUp() {
+        fixture.setUp()
+    }
+
+    @After
+    fun tearDown() {
+        fixture.tearDown()
+    }
+
+    @Test
+    fun `resolves references through a property once it resolves`() {
+        val model = parse("""
+            ext {
+              versions = [version: '4.9.0']
+              libs = [:]
+              lib = libs.okhttp
+              dep = "com.squareup.okhttp3:okhttp:${'$'}{lib.version}"
+            }
+        """)
+        assertFalse(isResolved(model, "lib"))
+        assertFalse(isResolved(model, "dep"))
+
+        fixture.write { model.ext().findProperty("libs").getMapValue("okhttp").setValue(ReferenceTo("versions")) }
+
+        assertTrue(isResolved(model, "lib"))
+        assertTrue(isResolved(model, "dep"))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", fixture.read { model.ext().findProperty("dep").forceString() })
+    }
+
+    @Test
+    fun `resolves quoted map keys once they are added`() {
+        val model = parse("""
+            ext {
+              deps = [:]
+              dep = "com.squareup.okhttp3:okhttp:${'$'}{ext.deps['okhttp']}"
+            }
+        """)
+        assertFalse(isResolved(model, "dep"))
+
+        fixture.write { model.ext().findProperty("deps").getMapValue("okhttp").setValue("4.9.0") }
+
+        assertTrue(isResolved(model, "dep"))
+        assertEquals("com.squareup.okhttp3:okhttp:4.9.0", fixture.read { model.ext().findProperty("dep").forceString() })
+    }
+
+    @Test
+    fun `leaves references to other properties unresolved`() {
+        val model = parse("""
+            ext {
+              dep = "com.squareup.okhttp3:okhttp:${'$'}okhttpVersion"
+            }
+        """)
+
+        fixture.write { model.ext().findProperty("okioVersion").setValue("2.4.0") }
+
+        assertFalse(isResolved(model, "dep"))
+    }
+
+    private fun parse(text: String): GradleBuildModel = fixture.parseModel(fixture.addFile("build.gradle", text.trimIndent()))
+
+    private fun isResolved(model: GradleBuildModel, property: String): Boolean = fixture.read {
+        val ext = (model as GradleBuildModelImpl).dslFile.getPropertyElement(ExtDslElement.EXT_BLOCK_NAME, ExtDslElement::class.java)!!
+        val dependencies = ext.getPropertyElement(property)!!.dependencies
+        dependencies.isNotEmpty() && dependencies.all { it.isResolved }
+    }
+}
@@ -0,0 +1,143 @@
+package me.scana.okgradle.internal.dsl.parser.elements
+
+import me.scana.okgradle.internal.dsl.DslTestFixture
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+@Suppress("MemberVisibilityCanPrivate")
+class GradlePropertiesDslElementTest {
+
+    val fixture = DslTestFixture()
+
+    lateinit var block: TestBlock
+
+    @Before
+    fun setUp() {
+        fixture.setUp()
+        val file = fixture.parse(fixture.addFile("build.gradle", ""))
+        block = TestBlock(file)
+    }
+
+    @After
+    fun tearDown() {
+        fixture.tearDown()
+    }
+
+    @Test
+    fun `finds the last visible element with a name`() {
+        val first = block.parsed("a")
+        block.parsed("b")
+        val second = block.parsed("a")
+
+        assertSame(second, block.getPropertyElement("a"))
+        block.removeProperty(second)
+        assertSame(first, block.getPropertyElement("a"))
+    }
+
+    @Test
+    fun `skips hidden and removed elements`() {
+        block.parsed("a")
+        block.parsed("a")
+        block.reset("a")
+
+        assertNull(block.getPropertyElement("a"))
+        val added = block.parsed("a")
+        assertSame(added, block.getPropertyElement("a"))
+        block.removeProperty("a")
+        assertNull(block.getPropertyElement("a"))
+    }
+
+    @Test
+    fun `finds elements before a child`() {
+        val first = block.parsed("a")
+        val child = block.parsed("b")
+        val second = block.parsed("a")
+
+        assertSame(first, block.getPropertyElementBefore(child, "a", false))
+        assertSame(second, block.getPropertyElementBefore(second, "a", true))
+        assertSame(first, block.getPropertyElementBefore(second, "a", false))
+    }
+
+    @Test
+    fun `checks every element before a hidden or foreign child`() {
+        block.parsed("a")
+        val hidden = block.parsed("b")
+        val last = block.parsed("a")
+        block.reset("b")
+        val foreign = GradleDslLiteral(block, GradleNameElement.create("b"))
+
+        assertSame(last, block.getPropertyElementBefore(hidden, "a", false))
+        assertSame(last, block.getPropertyElementBefore(foreign, "a", false))
+    }
+
+    @Test
+    fun `finds the latest element of any of the names`() {
+        block.parsed("compile")
+        block.parsed("implementation")
+        val latest = block.parsed("compile")
+
+        assertSame(latest, block.getPropertyElement(listOf("implementation", "compile"), GradleDslElement::class.java))
+        val added = block.parsed("implementation")
+        assertSame(added, block.getPropertyElement(listOf("implementation", "compile"), GradleDslElement::class.java))
+    }
+
+    @Test
+    fun `finds renamed elements`() {
+        val renamed = block.parsed("a")
+        val other = block.parsed("a")
+        val property = block.parsed("b")
+        assertSame(other, block.getPropertyElement("a"))
+
+        renamed.rename("c")
+        property.nameElement.rename("d")
+
+        assertSame(renamed, block.getPropertyElement("c"))
+        assertSame(other, block.getPropertyElement("a"))
+        assertSame(property, block.getPropertyElement("d"))
+        assertNull(block.getPropertyElement("b"))
+    }
+
+    @Test
+    fun `finds method calls by their new name`() {
+        val methodCall = GradleDslMethodCall(block, GradleNameElement.create("compile"), "compile")
+        block.setParsedElement(methodCall)
+        assertSame(methodCall, block.getPropertyElement("compile"))
+
+        methodCall.setMethodName("implementation")
+        methodCall.nameElement.rename("implementation")
+
+        assertSame(methodCall, block.getPropertyElement("implementation"))
+        assertNull(block.getPropertyElement("compile"))
+    }
+
+    @Test
+    fun `finds elements after they were replaced or moved`() {
+        val first = block.parsed("a")
+        val second = block.parsed("a")
+        assertSame(second, block.getPropertyElement("a"))
+
+        val replacement = block.replaceElement(second, GradleDslLiteral(block, GradleNameElement.create("a")))
+        assertSame(replacement, block.getPropertyElement("a"))
+
+        block.moveElementTo(0, replacement)
+        assertSame(first, block.getPropertyElement("a"))
+        assertSame(replacement, block.getPropertyElementBefore(first, "a", false))
+    }
+
+    class TestBlock(parent: GradleDslElement) : GradleDslBlockElement(parent, GradleNameElement.create("block")) {
+
+        fun parsed(name: String): GradleDslElement {
+            return GradleDslLiteral(this, GradleNameElement.create(name)).also { setParsedElement(it) }
+        }
+
+        /**
+         * Hides every element with [name] so far, like `reset()` does in an `abi` block.
+         */
+        fun reset(name: String) {
+            addParsedResettingElement(GradleDslMethodCall(this, GradleNameElement.create("reset"), "reset"), name)
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package me.scana.okgradle.util
+
+import me.scana.okgradle.data.repository.Artifact
+import org.junit.Test
+import javax.swing.event.ListDataEvent
+import javax.swing.event.ListDataListener
+import kotlin.test.assertEquals
+
+@Suppress("MemberVisibilityCanPrivate")
+class ArtifactListModelTest {
+
+    val events = mutableListOf<String>()
+    val model = ArtifactListModel().apply {
+        addListDataListener(object : ListDataListener {
+            override fun intervalAdded(e: ListDataEvent) = record("added", e)
+            override fun intervalRemoved(e: ListDataEvent) = record("removed", e)
+            override fun contentsChanged(e: ListDataEvent) = record("changed", e)
+        })
+    }
+
+    @Test
+    fun `keeps one row per artifact`() {
+        model.addAll(artifacts("retrofit:2.6.0", "okhttp:4.2.0", "retrofit:2.5.0"))
+
+        assertEquals(listOf("retrofit:2.6.0", "okhttp:4.2.0"), rows())
+        assertEquals(listOf("added 0-1"), events)
+    }
+
+    @Test
+    fun `reports only rows that differ`() {
+        model.replaceAll(artifacts("retrofit:1", "okhttp:1", "moshi:1", "okio:1"))
+        events.clear()
+
+        model.replaceAll(artifacts("retrofit:1", "gson:1", "okio:1"))
+
+        assertEquals(listOf("retrofit:1", "gson:1", "okio:1"), rows())
+        assertEquals(listOf("changed 1-1", "removed 2-2"), events)
+    }
+
+    @Test
+    fun `reports appended rows`() {
+        model.replaceAll(artifacts("retrofit:1"))
+        events.clear()
+
+        model.replaceAll(artifacts("retrofit:1", "okhttp:1", "okio:1"))
+
+        assertEquals(listOf("added 1-2"), events)
+    }
+
+    @Test
+    fun `updates a row in place`() {
+        model.addAll(artifacts("retrofit:+", "okhttp:+"))
+        events.clear()
+
+        model.update(Artifact("com.squareup", "okhttp", "4.2.0"))
+        model.update(Artifact("com.squareup", "okhttp", "4.2.0"))
+        model.update(Artifact("com.squareup", "moshi", "1.0"))
+
+        assertEquals(listOf("retrofit:+", "okhttp:4.2.0"), rows())
+        assertEquals(listOf("changed 1-1"), events)
+    }
+
+    @Test
+    fun `reports removed rows on clear`() {
+        model.addAll(artifacts("retrofit:1", "okhttp:1"))
+        events.clear()
+
+        model.clear()
+        model.clear()
+
+        assertEquals(0, model.size)
+        assertEquals(listOf("removed 0-1"), events)
+    }
+
+    private fun record(type: String, event: ListDataEvent) {
+        events.add("$type ${event.index0}-${event.index1}")
+    }
+
+    private fun rows() = (0 until model.size).map { model.getElementAt(it) }.map { "${it.name}:${it.version}" }
+
+    private fun artifacts(vararg ids: String) = ids.map {
+        val (name, version) = it.split(":")
+        Artifact("com.squareup", name, version)
+    }
+}
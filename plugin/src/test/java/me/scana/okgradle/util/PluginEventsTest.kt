@@ -0,0 +1,69 @@
+package me.scana.okgradle.util
+
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import org.junit.After
+import org.junit.Test
+import java.nio.file.Files
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import kotlin.test.fail
+
+@Suppress("MemberVisibilityCanPrivate")
+class PluginEventsTest {
+
+    val file = Files.createTempFile("ok-gradle", ".jfr")
+
+    @After
+    fun tearDown() {
+        Files.deleteIfExists(file)
+    }
+
+    @Test
+    fun `does nothing while not recording`() {
+        val span = PluginEvents.dslParse({ fail("Computed an attribute while not recording") }, "app", false)
+
+        assertSame(PluginEvents.Span.NONE, span)
+        assertFalse(span.isRecording)
+    }
+
+    @Test
+    fun `records the outcome of a phase`() {
+        val events = record("me.scana.okgradle.RepositorySearch") {
+            val span = PluginEvents.repositorySearch("Maven", 5)
+            assertTrue(span.isRecording)
+            span.end(3)
+        }
+
+        assertEquals(1, events.size)
+        assertEquals("Maven", events[0].getString("repository"))
+        assertEquals(5, events[0].getInt("queryLength"))
+        assertEquals(3, events[0].getInt("results"))
+    }
+
+    @Test
+    fun `records a phase once when ended twice`() {
+        val events = record("me.scana.okgradle.NetworkCall") {
+            val span = PluginEvents.networkCall("GET", "https://example.com")
+            span.end(200)
+            span.end()
+        }
+
+        assertEquals(1, events.size)
+        assertEquals(200, events[0].getInt("status"))
+    }
+
+    private fun record(event: String, block: () -> Unit): List<RecordedEvent> {
+        Recording().use {
+            it.enable(event).withoutThreshold()
+            it.start()
+            block()
+            it.stop()
+            it.dump(file)
+        }
+        return RecordingFile.readAllEvents(file).filter { it.eventType.name == event }
+    }
+}